@@ -0,0 +1,13 @@
+#!/bin/bash -e
+
+# Compiles the simulator and times its hot paths, any arguments are passed on to the benchmark
+# e.g. ./benchmark.sh --tasks=100,1000 --resources=10 --contention=low,high
+
+# Checks whether or not the output directory is created, creates one if not
+if [ ! -d output ]; then
+	mkdir output
+	echo "Creating output directory"
+fi
+
+javac src/*.java -d output
+java -cp output Benchmark "$@"
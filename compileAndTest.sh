@@ -11,3 +11,11 @@ fi
 javac src/*.java -d output
 java -cp output SimulateResourceManagers --verbose testing/input/input-$testNumber
 cat testing/output/output-$testNumber
+
+# Checks that a partition map whose pools no task spans keeps them as separate partitions
+java -cp output SimulateResourceManagers --partitions=testing/input/partitions-14 testing/input/input-14
+cat testing/output/output-14
+
+# Checks that a priority map serves task 3 ahead of task 2, which first come first served would not
+java -cp output SimulateResourceManagers --grant=priority --priorities=testing/input/priorities-05 testing/input/input-05
+cat testing/output/priorities-05
@@ -0,0 +1,387 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Banker's algorithm state object class, with the Available, Max, Allocation and Need matrices kept as flat
+ * primitive arrays indexed by [taskID * numberOfResources + resourceID]
+ */
+public class BankersState
+{
+    // Seeds for the two state hashes
+    private static final long HASH_SEED = 0x9E3779B97F4A7C15L;
+    private static final long CHECK_SEED = 0xC2B2AE3D27D4EB4FL;
+
+    // Banker's matrices
+    private int numberOfTasks;
+    private int numberOfResources;
+    private int[] available;
+    private int[] pendingFree;
+    private int[] max;
+    private int[] allocation;
+    private int[] need;
+
+    // Per resource ordering of the tasks by need, kept sorted as each task's need changes
+    private int[] needOrder; // [resourceID * numberOfTasks + rank] = taskID
+    private int[] needRank; // [resourceID * numberOfTasks + taskID] = rank
+
+    // Scratch space reused by every safety check
+    private int[] work;
+    private int[] cursor;
+    private int[] satisfiedCount;
+    private int[] finishQueue;
+    private AtomicIntegerArray sharedSatisfiedCount; // satisfiedCount for the parallel check, made on first use
+
+    // Whether wide safety checks are split across the common fork-join pool
+    private boolean isParallelSafetyCheck;
+
+    // Two independent hashes of Available, Allocation and Need, kept up to date as each entry changes, along with
+    // the verdicts of the states checked so far
+    private long stateHash;
+    private long stateCheck;
+    private SafetyVerdictCache safetyVerdicts;
+
+    /**
+     * Banker's state object constructor
+     * @param numberOfTasks The number of tasks being managed
+     * @param resourceTotals The total amount of each resource type, indexed by resource ID
+     */
+    public BankersState(int numberOfTasks, int[] resourceTotals)
+    {
+        this.numberOfTasks = numberOfTasks;
+        this.numberOfResources = resourceTotals.length;
+        this.available = resourceTotals.clone();
+        this.pendingFree = new int[numberOfResources];
+        this.max = new int[numberOfTasks * numberOfResources];
+        this.allocation = new int[numberOfTasks * numberOfResources];
+        this.need = new int[numberOfTasks * numberOfResources];
+
+        // Every need starts at 0, so any task order is a sorted order
+        this.needOrder = new int[numberOfResources * numberOfTasks];
+        this.needRank = new int[numberOfResources * numberOfTasks];
+        for (int r = 0; r < numberOfResources; ++r)
+        {
+            for (int t = 0; t < numberOfTasks; ++t)
+            {
+                needOrder[r * numberOfTasks + t] = t;
+                needRank[r * numberOfTasks + t] = t;
+            }
+        }
+
+        this.work = new int[numberOfResources];
+        this.cursor = new int[numberOfResources];
+        this.satisfiedCount = new int[numberOfTasks];
+        this.finishQueue = new int[numberOfTasks];
+
+        // Entries at 0 add nothing to the hashes, so only the available units need hashing to begin with
+        this.safetyVerdicts = new SafetyVerdictCache(SafetyVerdictCache.DEFAULT_CAPACITY);
+        for (int r = 0; r < numberOfResources; ++r)
+            rehash(r, 0, available[r]);
+    } // End of the Banker's state constructor
+
+    public int getNumberOfTasks() {
+        return numberOfTasks;
+    }
+
+    public int getNumberOfResources() {
+        return numberOfResources;
+    }
+
+    public int getAvailable(int resourceID) {
+        return available[resourceID];
+    }
+
+    public int getClaim(int taskID, int resourceID) {
+        return max[taskID * numberOfResources + resourceID];
+    }
+
+    public int getAllocation(int taskID, int resourceID) {
+        return allocation[taskID * numberOfResources + resourceID];
+    }
+
+    public int getNeed(int taskID, int resourceID) {
+        return need[taskID * numberOfResources + resourceID];
+    }
+
+    public boolean isParallelSafetyCheck() {
+        return isParallelSafetyCheck;
+    }
+
+    public void setParallelSafetyCheck(boolean isParallelSafetyCheck) {
+        this.isParallelSafetyCheck = isParallelSafetyCheck;
+    }
+
+    public SafetyVerdictCache getSafetyVerdicts() {
+        return safetyVerdicts;
+    }
+
+    /**
+     * Records a task's initial claim on a resource type
+     * @param taskID The ID of the task making the claim
+     * @param resourceID The ID of the resource being claimed
+     * @param claim The maximum amount of the resource the task may hold
+     */
+    public void setClaim(int taskID, int resourceID, int claim)
+    {
+        int cell = taskID * numberOfResources + resourceID;
+        max[cell] = claim;
+        updateNeed(taskID, resourceID, claim - allocation[cell]);
+    } // End of the set claim method
+
+    /**
+     * Grants a request if enough units are available and the resulting state is safe
+     * @param taskID The ID of the requesting task
+     * @param resourceID The ID of the resource requested
+     * @param amountRequested The number of units requested
+     * @return true if the request was granted, false if the task must wait
+     */
+    public boolean tryGrant(int taskID, int resourceID, int amountRequested)
+    {
+        if (amountRequested > available[resourceID])
+            return false;
+
+        int cell = taskID * numberOfResources + resourceID;
+        setAvailable(resourceID, available[resourceID] - amountRequested);
+        setAllocation(cell, allocation[cell] + amountRequested);
+        updateNeed(taskID, resourceID, need[cell] - amountRequested);
+
+        if ((canFinishWithAvailable(taskID)) || (isSafeCached()))
+            return true;
+
+        // Unsafe, puts the state back the way it was
+        setAvailable(resourceID, available[resourceID] + amountRequested);
+        setAllocation(cell, allocation[cell] - amountRequested);
+        updateNeed(taskID, resourceID, need[cell] + amountRequested);
+        return false;
+    } // End of the try grant method
+
+    /**
+     * Releases units held by a task, which become available at the start of the next cycle
+     * @param taskID The ID of the releasing task
+     * @param resourceID The ID of the resource released
+     * @param amountReleased The number of units released
+     */
+    public void release(int taskID, int resourceID, int amountReleased)
+    {
+        int cell = taskID * numberOfResources + resourceID;
+        setAllocation(cell, allocation[cell] - amountReleased);
+        pendingFree[resourceID] += amountReleased;
+        updateNeed(taskID, resourceID, need[cell] + amountReleased);
+    } // End of the release method
+
+    /**
+     * Removes a terminated or aborted task from the state, releasing everything it holds at the end of the cycle
+     * @param taskID The ID of the task to be retired
+     */
+    public void retire(int taskID)
+    {
+        for (int r = 0; r < numberOfResources; ++r)
+        {
+            int cell = taskID * numberOfResources + r;
+            pendingFree[r] += allocation[cell];
+            setAllocation(cell, 0);
+            max[cell] = 0;
+            updateNeed(taskID, r, 0);
+        }
+    } // End of the retire method
+
+    /**
+     * Moves every unit released during this cycle into the available vector
+     */
+    public void freePendingResources()
+    {
+        for (int r = 0; r < numberOfResources; ++r)
+        {
+            setAvailable(r, available[r] + pendingFree[r]);
+            pendingFree[r] = 0;
+        }
+    } // End of the free pending resources method
+
+    /**
+     * Looks the current state up in the verdict cache, only running the safety algorithm on a miss
+     * @return true if the current state is safe
+     */
+    private boolean isSafeCached()
+    {
+        int verdict = safetyVerdicts.lookup(stateHash, stateCheck);
+        if (verdict != SafetyVerdictCache.UNKNOWN)
+            return verdict == SafetyVerdictCache.SAFE;
+
+        boolean isSafe = isSafe();
+        safetyVerdicts.record(stateHash, stateCheck, isSafe);
+        return isSafe;
+    } // End of the is safe cached method
+
+    /**
+     * Safety algorithm: the state is safe if every task can run to completion in some order. Rather than rescanning
+     * every task per round, each resource keeps its tasks sorted by need, so a cursor per resource only ever moves
+     * forward as Work grows, giving O(T * R) per check. When asked to, states big enough for it to pay off are
+     * checked in parallel instead
+     * @return true if the current state is safe
+     */
+    public boolean isSafe()
+    {
+        if ((isParallelSafetyCheck) && (ParallelSafetyCheck.isWorthSplitting(numberOfTasks, numberOfResources)))
+            return isSafeInParallel();
+
+        int head = 0;
+        int tail = 0;
+        System.arraycopy(available, 0, work, 0, numberOfResources);
+        Arrays.fill(satisfiedCount, 0);
+
+        // Counts, per task, the resources whose need is already covered by Work
+        for (int r = 0; r < numberOfResources; ++r)
+        {
+            cursor[r] = 0;
+            tail = advanceCursor(r, tail);
+        }
+
+        // Lets each task that can finish return its allocation to Work
+        while (head < tail)
+        {
+            int taskID = finishQueue[head++];
+            for (int r = 0; r < numberOfResources; ++r)
+            {
+                int held = allocation[taskID * numberOfResources + r];
+                if (held > 0)
+                {
+                    work[r] += held;
+                    tail = advanceCursor(r, tail);
+                }
+            }
+        }
+        return tail == numberOfTasks;
+    } // End of the is safe method
+
+    /**
+     * Safety algorithm in rounds on the common fork-join pool, the same need-sorted sweep as isSafe with the
+     * resources' cursors advanced side by side. Each round adds the tasks the last one finished to Work, until a
+     * round finishes nothing new. Public so the benchmark can time it on states below the crossover as well
+     * @return true if the current state is safe
+     */
+    public boolean isSafeInParallel()
+    {
+        if (sharedSatisfiedCount == null)
+            sharedSatisfiedCount = new AtomicIntegerArray(numberOfTasks);
+        for (int t = 0; t < numberOfTasks; ++t)
+            sharedSatisfiedCount.set(t, 0);
+        System.arraycopy(available, 0, work, 0, numberOfResources);
+        Arrays.fill(cursor, 0);
+
+        int head = 0;
+        int tail = 0;
+        do
+        {
+            int[] finishedTasks = ForkJoinPool.commonPool().invoke(new ParallelSafetyCheck(numberOfTasks,
+                    numberOfResources, need, allocation, needOrder, work, cursor, sharedSatisfiedCount, finishQueue,
+                    head, tail, 0, numberOfResources));
+            head = tail;
+            System.arraycopy(finishedTasks, 0, finishQueue, tail, finishedTasks.length);
+            tail += finishedTasks.length;
+        } while (head < tail);
+        return tail == numberOfTasks;
+    } // End of the is safe in parallel method
+
+    /**
+     * Advances a resource's cursor past every task whose need of it is covered by Work
+     * @return The new tail of the finish queue
+     */
+    private int advanceCursor(int resourceID, int tail)
+    {
+        int base = resourceID * numberOfTasks;
+        while (cursor[resourceID] < numberOfTasks)
+        {
+            int taskID = needOrder[base + cursor[resourceID]];
+            if (need[taskID * numberOfResources + resourceID] > work[resourceID])
+                break;
+            ++cursor[resourceID];
+            if (++satisfiedCount[taskID] == numberOfResources)
+                finishQueue[tail++] = taskID;
+        }
+        return tail;
+    } // End of the advance cursor method
+
+    /**
+     * Fast path: given the state was safe before a grant, if the granted task can still finish with what is
+     * available, it will hand back at least as much as it was given, so the new state is safe as well
+     */
+    private boolean canFinishWithAvailable(int taskID)
+    {
+        int base = taskID * numberOfResources;
+        for (int r = 0; r < numberOfResources; ++r)
+        {
+            if (need[base + r] > available[r])
+                return false;
+        }
+        return true;
+    } // End of the can finish with available method
+
+    /**
+     * Updates a single need entry, moving only that task within the resource's sorted need order
+     */
+    private void updateNeed(int taskID, int resourceID, int newNeed)
+    {
+        int cell = taskID * numberOfResources + resourceID;
+        rehash(numberOfResources * (1 + numberOfTasks) + cell, need[cell], newNeed);
+        need[cell] = newNeed;
+
+        int base = resourceID * numberOfTasks;
+        int rank = needRank[base + taskID];
+
+        // Moves the task towards the front while its need is smaller than its neighbour's
+        while ((rank > 0) && (need[needOrder[base + rank - 1] * numberOfResources + resourceID] > newNeed))
+        {
+            int neighbour = needOrder[base + rank - 1];
+            needOrder[base + rank] = neighbour;
+            needRank[base + neighbour] = rank;
+            --rank;
+        }
+
+        // Moves the task towards the back while its need is larger than its neighbour's
+        while ((rank < numberOfTasks - 1) && (need[needOrder[base + rank + 1] * numberOfResources + resourceID] < newNeed))
+        {
+            int neighbour = needOrder[base + rank + 1];
+            needOrder[base + rank] = neighbour;
+            needRank[base + neighbour] = rank;
+            ++rank;
+        }
+
+        needOrder[base + rank] = taskID;
+        needRank[base + taskID] = rank;
+    } // End of the update need method
+
+    private void setAvailable(int resourceID, int newAvailable)
+    {
+        rehash(resourceID, available[resourceID], newAvailable);
+        available[resourceID] = newAvailable;
+    } // End of the set available method
+
+    private void setAllocation(int cell, int newAllocation)
+    {
+        rehash(numberOfResources + cell, allocation[cell], newAllocation);
+        allocation[cell] = newAllocation;
+    } // End of the set allocation method
+
+    /**
+     * Swaps one entry's part of the state hashes for its new value. Available, Allocation and Need each have their
+     * own range of slots, and the hashes are sums of one mixed value per slot, so a change costs O(1)
+     */
+    private void rehash(int slot, int oldValue, int newValue)
+    {
+        stateHash += slotHash(slot, newValue, HASH_SEED) - slotHash(slot, oldValue, HASH_SEED);
+        stateCheck += slotHash(slot, newValue, CHECK_SEED) - slotHash(slot, oldValue, CHECK_SEED);
+    } // End of the rehash method
+
+    /**
+     * Mixes a slot and its value into 64 bits with the SplitMix64 finaliser, an entry at 0 adds nothing
+     */
+    private static long slotHash(int slot, int value, long seed)
+    {
+        if (value == 0)
+            return 0;
+        long z = seed + ((long) slot << 32) + (value & 0xFFFFFFFFL);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    } // End of the slot hash method
+} // End of the Banker's state class
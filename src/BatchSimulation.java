@@ -0,0 +1,188 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Batch simulation class, simulating every input file in a directory on a fork-join pool inside a single JVM
+ */
+public class BatchSimulation extends RecursiveAction
+{
+    // Ranges at or below this many files are simulated directly rather than split further
+    private static final int FILES_PER_LEAF = 4;
+
+    // RecursiveAction is serializable, batches never are
+    private static final long serialVersionUID = 1L;
+
+    // Batch attributes, shared by every split of the same batch
+    private List<Path> inputFiles;
+    private SimulationResult[][] results; // [file][version]
+    private String[] errors;
+    private SimulationOptions options;
+    private EventLog eventLog; // Null when events are not logged
+    private int start;
+    private int end;
+
+    /**
+     * Batch simulation constructor, covering the input files in [start, end)
+     */
+    private BatchSimulation(List<Path> inputFiles, SimulationResult[][] results, String[] errors,
+                            SimulationOptions options, EventLog eventLog, int start, int end)
+    {
+        this.inputFiles = inputFiles;
+        this.results = results;
+        this.errors = errors;
+        this.options = options;
+        this.eventLog = eventLog;
+        this.start = start;
+        this.end = end;
+    } // End of the batch simulation constructor
+
+    /**
+     * Simulates every regular file found under a directory, printing each file's tables in path order followed
+     * by the summary of the whole batch
+     * @param directoryPath The directory to search for input files
+     * @param options The trace level, victim policy and safety check mode every file is simulated with
+     * @param out The stream the tables and summary are written to
+     * @throws InvalidInputException If the directory cannot be read
+     */
+    public static void simulateDirectory(String directoryPath, SimulationOptions options, PrintStream out)
+            throws InvalidInputException
+    {
+        List<Path> inputFiles;
+        try (Stream<Path> paths = Files.walk(Paths.get(directoryPath)))
+        {
+            inputFiles = paths.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        catch (IOException e)
+        {
+            throw new InvalidInputException("Error: Could not read the batch directory " + directoryPath);
+        }
+
+        String[] inputNames = new String[inputFiles.size()];
+        for (int i = 0; i < inputFiles.size(); ++i)
+            inputNames[i] = inputFiles.get(i).toString();
+
+        SimulationResult[][] results = new SimulationResult[inputFiles.size()][];
+        String[] errors = new String[inputFiles.size()];
+        ForkJoinPool pool = new ForkJoinPool();
+        try (EventLog eventLog = options.isLoggingEvents() ? EventLog.open(options.getEventLogPath(), inputNames)
+                : null)
+        {
+            pool.invoke(new BatchSimulation(Collections.unmodifiableList(inputFiles), results, errors,
+                    options, eventLog, 0, inputFiles.size()));
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+
+        // Prints each file's tables
+        for (int i = 0; i < inputFiles.size(); ++i)
+        {
+            out.println("==== " + inputFiles.get(i) + " ====");
+            if (errors[i] != null)
+                out.println(errors[i]);
+            else
+            {
+                for (SimulationResult result : results[i])
+                    out.print(result.getOutput());
+            }
+            out.println();
+        }
+        printSummary(results, errors, out);
+
+        // Writes out the metrics collected for every file that ran
+        if (options.isCollectingMetrics())
+            MetricsExporter.write(options.getMetricsPath(), inputNames, results);
+    } // End of the simulate directory method
+
+    /**
+     * Splits the range in half until it is small enough to simulate directly
+     */
+    @Override
+    protected void compute()
+    {
+        if (end - start <= FILES_PER_LEAF)
+        {
+            for (int i = start; i < end; ++i)
+                simulateFile(i);
+            return;
+        }
+        int middle = (start + end) >>> 1;
+        invokeAll(new BatchSimulation(inputFiles, results, errors, options, eventLog, start, middle),
+                new BatchSimulation(inputFiles, results, errors, options, eventLog, middle, end));
+    } // End of the compute method
+
+    /**
+     * Runs every manager over a single file on the current worker, recording an error rather than failing the batch
+     */
+    private void simulateFile(int fileIndex)
+    {
+        try
+        {
+            StepProgram program = StepProgram.fromFile(inputFiles.get(fileIndex).toString());
+            SimulationResult[] fileResults = new SimulationResult[SimulateResourceManagers.NUMBER_OF_MANAGERS];
+            for (int version = 0; version < fileResults.length; ++version)
+                fileResults[version] = SimulateResourceManagers.simulateManager(program, version, options,
+                        eventLog, fileIndex);
+            results[fileIndex] = fileResults;
+        }
+        catch (InvalidInputException e)
+        {
+            errors[fileIndex] = e.getMessage();
+        }
+        catch (RuntimeException e)
+        {
+            errors[fileIndex] = "Error: Simulation failed: " + e;
+        }
+    } // End of the simulate file method
+
+    /**
+     * Prints the totals of every manager across the whole batch
+     */
+    private static void printSummary(SimulationResult[][] results, String[] errors, PrintStream out)
+    {
+        long[] totalTime = new long[SimulateResourceManagers.NUMBER_OF_MANAGERS];
+        long[] totalWaitTime = new long[SimulateResourceManagers.NUMBER_OF_MANAGERS];
+        long[] numberOfTasks = new long[SimulateResourceManagers.NUMBER_OF_MANAGERS];
+        long[] numberOfAbortedTasks = new long[SimulateResourceManagers.NUMBER_OF_MANAGERS];
+        int numberOfFailedFiles = 0;
+
+        for (int i = 0; i < results.length; ++i)
+        {
+            if (errors[i] != null)
+            {
+                ++numberOfFailedFiles;
+                continue;
+            }
+            for (SimulationResult result : results[i])
+            {
+                int version = result.getVersion();
+                totalTime[version] += result.getTotalTime();
+                totalWaitTime[version] += result.getTotalWaitTime();
+                numberOfTasks[version] += result.getNumberOfTasks();
+                numberOfAbortedTasks[version] += result.getNumberOfAbortedTasks();
+            }
+        }
+
+        out.println("==== Summary ====");
+        out.println("\tFiles simulated: " + (results.length - numberOfFailedFiles) + ", failed: " + numberOfFailedFiles);
+        out.println("\t\tTime\tWait\tWaiting\tTasks\tAborted");
+        for (int version = 0; version < SimulateResourceManagers.NUMBER_OF_MANAGERS; ++version)
+        {
+            double percentageOfTimeSpentWaiting = ((double) totalWaitTime[version] /
+                    ((double) totalTime[version]))*(100.000000);
+            out.printf("\t%s\t%d\t%d\t%6f%%\t%d\t%d\n", (version == 0) ? "FIFO" : "BANKER'S",
+                    totalTime[version], totalWaitTime[version], percentageOfTimeSpentWaiting,
+                    numberOfTasks[version], numberOfAbortedTasks[version]);
+        }
+    } // End of the print summary method
+} // End of the batch simulation class
@@ -0,0 +1,311 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Benchmark class, timing the hot paths of the simulator over synthetic programs of a given shape, so a change to
+ * any of them can be measured before and after. Each benchmark is warmed up so the JIT has compiled it, then timed
+ * one operation at a time, and every result is folded into a sink the JIT cannot prove unused
+ */
+public class Benchmark
+{
+    // Benchmarks
+    private static final String[] BENCHMARK_NAMES = {"parse", "orm", "bankers", "safety", "safety-parallel"};
+
+    // Contention levels, each dividing the units a resource would need for every task to hold its claim at once
+    private static final NameTable CONTENTION_NAMES = new NameTable("contention level", "low", "medium", "high");
+    private static final int[] CONTENTION_DIVISORS = {1, 4, 16};
+
+    // Program shape
+    private static final int MAXIMUM_CLAIM = 4;
+    private static final int ROUNDS_PER_TASK = 4;
+    private static final long SEED = 42;
+
+    // Defaults, overridden from the commandline
+    private static int[] TASK_COUNTS = {10, 100, 1000, 2000};
+    private static int[] RESOURCE_COUNTS = {1, 10};
+    private static int[] CONTENTION_LEVELS = {0, 2};
+    private static int WARMUP_ITERATIONS = 5;
+    private static int MEASURED_ITERATIONS = 20;
+
+    // Folds in every result, so no benchmark can be optimised away
+    private static volatile long SINK;
+
+    /**
+     * Runs every benchmark over every combination of task count, resource count and contention level
+     * @param args The commandline, of the form '[--tasks=a,b] [--resources=a,b] [--contention=low,high]
+     *             [--warmup=n] [--iterations=n]'
+     */
+    public static void main(String[] args)
+    {
+        try
+        {
+            validateInput(args);
+            System.out.printf("%-16s %7s %9s %10s %14s %14s\n", "Benchmark", "Tasks", "Resources", "Contention",
+                    "Mean (us/op)", "Min (us/op)");
+            for (int numberOfTasks : TASK_COUNTS)
+            {
+                for (int numberOfResources : RESOURCE_COUNTS)
+                {
+                    for (int contention : CONTENTION_LEVELS)
+                        runBenchmarks(numberOfTasks, numberOfResources, contention);
+                }
+            }
+        }
+        catch (InvalidInputException e)
+        {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    } // End of the main method
+
+    /***** Application Methods *****/
+    /**
+     * [Application Method] Runs every benchmark over a single program shape
+     */
+    private static void runBenchmarks(int numberOfTasks, int numberOfResources, int contention)
+            throws InvalidInputException
+    {
+        StepProgram program = buildProgram(numberOfTasks, numberOfResources, contention);
+        Path inputFile = writeProgram(program);
+        PrintStream out = new PrintStream(OutputStream.nullOutputStream());
+        SimulationEngine engine = new SimulationEngine(program, out,
+                new SimulationOptions(TraceLevel.OFF, VictimPolicy.LOWEST_ID, false, null, null));
+        BankersState state = buildSafetyState(program);
+
+        try
+        {
+            for (int benchmark = 0; benchmark < BENCHMARK_NAMES.length; ++benchmark)
+            {
+                long totalTime = 0;
+                long minimumTime = Long.MAX_VALUE;
+                for (int iteration = -WARMUP_ITERATIONS; iteration < MEASURED_ITERATIONS; ++iteration)
+                {
+                    long startTime = System.nanoTime();
+                    switch (benchmark)
+                    {
+                        case 0:
+                            SINK += InputParser.parse(inputFile.toString()).getNumberOfSteps();
+                            break;
+                        case 1:
+                            SINK += engine.simulationWrapper(0).getTotalTime();
+                            break;
+                        case 2:
+                            SINK += engine.simulationWrapper(1).getTotalTime();
+                            break;
+                        case 3:
+                            SINK += state.isSafe() ? 1 : 0;
+                            break;
+                        default:
+                            // Times the parallel check itself, whichever side of its crossover the state is
+                            SINK += state.isSafeInParallel() ? 1 : 0;
+                            break;
+                    }
+                    long elapsedTime = System.nanoTime() - startTime;
+                    if (iteration < 0)
+                        continue;
+                    totalTime += elapsedTime;
+                    minimumTime = Math.min(minimumTime, elapsedTime);
+                }
+                System.out.printf("%-16s %7d %9d %10s %14.1f %14.1f\n", BENCHMARK_NAMES[benchmark], numberOfTasks,
+                        numberOfResources, CONTENTION_NAMES.getName(contention),
+                        totalTime / (MEASURED_ITERATIONS * 1000.0), minimumTime / 1000.0);
+            }
+        }
+        finally
+        {
+            try
+            {
+                Files.deleteIfExists(inputFile);
+            }
+            catch (IOException e)
+            {
+                System.err.println("Warning: Could not delete " + inputFile);
+            }
+        }
+    } // End of the run benchmarks method
+
+    /***** Helper Methods *****/
+    /**
+     * [Helper Method] Builds a program where every task claims a few units of every resource, then takes turns
+     * holding two resources at once while it computes. The fewer units there are to go around, the more tasks block
+     * and the more deadlocks the ORM has to break
+     * @param numberOfTasks The number of tasks
+     * @param numberOfResources The number of resource types
+     * @param contention The contention level, indexing CONTENTION_DIVISORS
+     * @return The program, the same shape always giving the same program
+     */
+    private static StepProgram buildProgram(int numberOfTasks, int numberOfResources, int contention)
+    {
+        Random random = new Random(SEED);
+        int[] resourceTotals = new int[numberOfResources];
+        for (int r = 0; r < numberOfResources; ++r)
+            resourceTotals[r] = Math.max(MAXIMUM_CLAIM,
+                    numberOfTasks * MAXIMUM_CLAIM / CONTENTION_DIVISORS[contention]);
+
+        int stepsPerTask = numberOfResources + ROUNDS_PER_TASK * 5 + 1;
+        int numberOfSteps = numberOfTasks * stepsPerTask;
+        byte[] stepTypes = new byte[numberOfSteps];
+        int[] referencedTasks = new int[numberOfSteps];
+        int[] referencedResources = new int[numberOfSteps];
+        int[] amounts = new int[numberOfSteps];
+        int step = 0;
+        int[] claims = new int[numberOfResources];
+        for (int taskID = 0; taskID < numberOfTasks; ++taskID)
+        {
+            for (int r = 0; r < numberOfResources; ++r)
+            {
+                claims[r] = 1 + random.nextInt(MAXIMUM_CLAIM);
+                stepTypes[step] = 0;
+                referencedTasks[step] = taskID;
+                referencedResources[step] = r;
+                amounts[step++] = claims[r];
+            }
+            for (int round = 0; round < ROUNDS_PER_TASK; ++round)
+            {
+                int firstResource = random.nextInt(numberOfResources);
+                int secondResource = random.nextInt(numberOfResources);
+                int firstAmount = 1 + random.nextInt(claims[firstResource]);
+                int secondAmount = (secondResource == firstResource)
+                        ? 0 : 1 + random.nextInt(claims[secondResource]);
+                int[][] roundSteps = {
+                        {1, firstResource, firstAmount}, {1, secondResource, secondAmount},
+                        {2, 1 + random.nextInt(3), 0}, {3, firstResource, firstAmount},
+                        {3, secondResource, secondAmount}};
+                for (int[] roundStep : roundSteps)
+                {
+                    stepTypes[step] = (byte) roundStep[0];
+                    referencedTasks[step] = taskID;
+                    referencedResources[step] = roundStep[1];
+                    amounts[step++] = roundStep[2];
+                }
+            }
+            stepTypes[step] = 4;
+            referencedTasks[step] = taskID;
+            referencedResources[step] = 0;
+            amounts[step++] = 0;
+        }
+        return new StepProgram(numberOfTasks, resourceTotals, numberOfSteps, stepTypes, new int[numberOfSteps],
+                referencedTasks, referencedResources, amounts, 1, numberOfTasks < 2);
+    } // End of the build program method
+
+    /**
+     * [Helper Method] Writes a program out in the text input format, for the parser to read back
+     * @return The temporary file holding the program
+     */
+    private static Path writeProgram(StepProgram program) throws InvalidInputException
+    {
+        try
+        {
+            Path inputFile = Files.createTempFile("benchmark-", ".txt");
+            try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(inputFile)))
+            {
+                writer.print(program.getNumberOfTasks() + " " + program.getNumberOfResources());
+                for (int r = 0; r < program.getNumberOfResources(); ++r)
+                    writer.print(" " + program.getResourceTotal(r));
+                writer.println();
+                String[] activityNames = {"initiate", "request", "compute", "release", "terminate"};
+                for (int step = 0; step < program.getNumberOfSteps(); ++step)
+                {
+                    int stepType = program.getStepType(step);
+                    int referencedResource = ((stepType == 2) || (stepType == 4))
+                            ? program.getReferencedResource(step) : program.getReferencedResource(step) + 1;
+                    writer.println(activityNames[stepType] + " " + (program.getReferencedTaskID(step) + 1) + " " +
+                            referencedResource + " " + program.getNumberOfResourcesUtilised(step));
+                }
+            }
+            return inputFile;
+        }
+        catch (IOException e)
+        {
+            throw new InvalidInputException("Error: Could not write the benchmark input");
+        }
+    } // End of the write program method
+
+    /**
+     * [Helper Method] Builds a banker's state partway through a run, with every claim made and each task holding
+     * whatever it was granted of its first request, so the safety check has real work to do
+     */
+    private static BankersState buildSafetyState(StepProgram program)
+    {
+        int numberOfResources = program.getNumberOfResources();
+        int[] resourceTotals = new int[numberOfResources];
+        for (int r = 0; r < numberOfResources; ++r)
+            resourceTotals[r] = program.getResourceTotal(r);
+        BankersState state = new BankersState(program.getNumberOfTasks(), resourceTotals);
+
+        for (int step = 0; step < program.getNumberOfSteps(); ++step)
+        {
+            if (program.getStepType(step) == 0)
+                state.setClaim(program.getReferencedTaskID(step), program.getReferencedResource(step),
+                        program.getNumberOfResourcesUtilised(step));
+        }
+        for (int taskID = 0; taskID < program.getNumberOfTasks(); ++taskID)
+        {
+            int step = program.getFirstStep(taskID);
+            while (program.getStepType(step) == 0)
+                step = program.getNextStep(step);
+            state.tryGrant(taskID, program.getReferencedResource(step), program.getNumberOfResourcesUtilised(step));
+        }
+        return state;
+    } // End of the build safety state method
+
+    /**
+     * [Helper Method] Reads the benchmark settings from the commandline
+     * @param args The commandline input given
+     * @throws InvalidInputException If a flag is unknown or its values are not valid
+     */
+    private static void validateInput(String[] args) throws InvalidInputException
+    {
+        for (String arg : args)
+        {
+            if (arg.startsWith("--tasks="))
+                TASK_COUNTS = parseInts(arg.substring("--tasks=".length()), 1);
+            else if (arg.startsWith("--resources="))
+                RESOURCE_COUNTS = parseInts(arg.substring("--resources=".length()), 1);
+            else if (arg.startsWith("--contention="))
+            {
+                String[] names = arg.substring("--contention=".length()).split(",");
+                CONTENTION_LEVELS = new int[names.length];
+                for (int i = 0; i < names.length; ++i)
+                    CONTENTION_LEVELS[i] = CONTENTION_NAMES.fromName(names[i]);
+            }
+            else if (arg.startsWith("--warmup="))
+                WARMUP_ITERATIONS = parseInts(arg.substring("--warmup=".length()), 0)[0];
+            else if (arg.startsWith("--iterations="))
+                MEASURED_ITERATIONS = parseInts(arg.substring("--iterations=".length()), 1)[0];
+            else
+                throw new InvalidInputException("Error: Input is invalid, please make sure the input is of the form " +
+                        "'java out/production/Lab3/Benchmark [--tasks=a,b] [--resources=a,b] " +
+                        "[--contention=low,medium,high] [--warmup=n] [--iterations=n]'");
+        }
+    } // End of the validate input method
+
+    /**
+     * [Helper Method] Reads a comma separated list of whole numbers, none of which may be below the minimum
+     */
+    private static int[] parseInts(String list, int minimum) throws InvalidInputException
+    {
+        String[] values = list.split(",");
+        int[] numbers = new int[values.length];
+        String error = "Error: '%s' is not a whole number of at least " + minimum;
+        for (int i = 0; i < values.length; ++i)
+        {
+            try
+            {
+                numbers[i] = Integer.parseInt(values[i]);
+            }
+            catch (NumberFormatException e)
+            {
+                throw new InvalidInputException(String.format(error, values[i]));
+            }
+            if (numbers[i] < minimum)
+                throw new InvalidInputException(String.format(error, values[i]));
+        }
+        return numbers;
+    } // End of the parse ints method
+} // End of the benchmark class
@@ -0,0 +1,248 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Binary trace class, reading and writing programs in a compact binary form. A trace is a fixed header, the
+ * resource totals, then one packed record per step:
+ *
+ *   header:  magic (int), format version (int), T (int), R (int), number of groups (int),
+ *            flags (int, bit 0 = sequential tasks), number of records (long), then R resource totals (int)
+ *   record:  step type (byte), task ID (int), resource ID or compute cycles (int), amount (int)
+ *
+ * A record with the group break type starts the next blank line separated group. Traces are read through
+ * memory mapped windows, so loading one is close to free once it is in the page cache
+ */
+public class BinaryTrace
+{
+    // Format constants
+    public static final String FILE_EXTENSION = ".rmt";
+    private static final int MAGIC = 0x524D5452; // "RMTR"
+    private static final int FORMAT_VERSION = 1;
+    private static final int FIXED_HEADER_SIZE = 32;
+    private static final int RECORD_SIZE = 13;
+    private static final byte GROUP_BREAK = 5;
+    private static final int SEQUENTIAL_TASK_FLAG = 1;
+
+    // The number of records mapped at a time, keeping each mapping well under the 2GB limit
+    private static final int RECORDS_PER_WINDOW = 1 << 24;
+
+    /**
+     * Checks whether a file starts with the binary trace magic number
+     * @param filePath The file to check
+     * @return true if the file is a binary trace
+     */
+    public static boolean isBinaryTrace(String filePath)
+    {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ))
+        {
+            ByteBuffer magic = ByteBuffer.allocate(4);
+            while ((magic.hasRemaining()) && (channel.read(magic) > 0))
+                continue;
+            return (!magic.hasRemaining()) && (magic.getInt(0) == MAGIC);
+        }
+        catch (IOException e)
+        {
+            return false;
+        }
+    } // End of the is binary trace method
+
+    /**
+     * Reads a program from a binary trace
+     * @param filePath The trace file path, given as a String
+     * @return The program held in the trace
+     * @throws InvalidInputException If the file cannot be read or is not a valid trace
+     */
+    public static StepProgram read(String filePath) throws InvalidInputException
+    {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ))
+        {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    Math.min(channel.size(), FIXED_HEADER_SIZE));
+            if ((header.remaining() < FIXED_HEADER_SIZE) || (header.getInt() != MAGIC))
+                throw new InvalidInputException("Error: " + filePath + " is not a binary trace");
+            if (header.getInt() != FORMAT_VERSION)
+                throw new InvalidInputException("Error: " + filePath + " uses an unsupported trace version");
+
+            int numberOfTasks = header.getInt();
+            int numberOfResourceTypes = header.getInt();
+            int numberOfGroups = header.getInt();
+            boolean isSequentialTask = (header.getInt() & SEQUENTIAL_TASK_FLAG) != 0;
+            long numberOfRecords = header.getLong();
+
+            long recordsStart = FIXED_HEADER_SIZE + 4L * numberOfResourceTypes;
+            if (channel.size() != recordsStart + numberOfRecords * RECORD_SIZE)
+                throw new InvalidInputException("Error: " + filePath + " is truncated or has trailing data");
+            if (numberOfRecords > Integer.MAX_VALUE)
+                throw new InvalidInputException("Error: " + filePath + " holds too many records");
+
+            int[] resourceTotals = new int[numberOfResourceTypes];
+            MappedByteBuffer totals = channel.map(FileChannel.MapMode.READ_ONLY, FIXED_HEADER_SIZE,
+                    4L * numberOfResourceTypes);
+            for (int i = 0; i < numberOfResourceTypes; ++i)
+                resourceTotals[i] = totals.getInt();
+
+            // Reads the records a window at a time, group breaks leave the columns slightly over-allocated
+            byte[] stepTypes = new byte[(int) numberOfRecords];
+            int[] groups = new int[(int) numberOfRecords];
+            int[] referencedTasks = new int[(int) numberOfRecords];
+            int[] referencedResources = new int[(int) numberOfRecords];
+            int[] amounts = new int[(int) numberOfRecords];
+            int numberOfSteps = 0;
+            int group = 0;
+            for (long windowStart = 0; windowStart < numberOfRecords; windowStart += RECORDS_PER_WINDOW)
+            {
+                long recordsInWindow = Math.min(RECORDS_PER_WINDOW, numberOfRecords - windowStart);
+                MappedByteBuffer records = channel.map(FileChannel.MapMode.READ_ONLY,
+                        recordsStart + windowStart * RECORD_SIZE, recordsInWindow * RECORD_SIZE);
+                for (long i = 0; i < recordsInWindow; ++i)
+                {
+                    byte stepType = records.get();
+                    int taskID = records.getInt();
+                    int referencedResource = records.getInt();
+                    int amount = records.getInt();
+                    if (stepType == GROUP_BREAK)
+                    {
+                        ++group;
+                        continue;
+                    }
+
+                    // Sanity check: the record has to reference a real task, resource and activity
+                    if ((stepType < 0) || (stepType > 4) || (taskID < 0) || (taskID >= numberOfTasks)
+                            || (((stepType != 2) && (stepType != 4))
+                                && ((referencedResource < 0) || (referencedResource >= numberOfResourceTypes))))
+                        throw new InvalidInputException("Error: " + filePath + " has an invalid record at index " +
+                                (windowStart + i));
+
+                    stepTypes[numberOfSteps] = stepType;
+                    groups[numberOfSteps] = group;
+                    referencedTasks[numberOfSteps] = taskID;
+                    referencedResources[numberOfSteps] = referencedResource;
+                    amounts[numberOfSteps] = amount;
+                    ++numberOfSteps;
+                }
+            }
+            return new StepProgram(numberOfTasks, resourceTotals, numberOfSteps, stepTypes, groups, referencedTasks,
+                    referencedResources, amounts, numberOfGroups, isSequentialTask);
+        }
+        catch (IOException e)
+        {
+            throw new InvalidInputException("Error: Could not read binary trace " + filePath);
+        }
+    } // End of the read method
+
+    /**
+     * Writes a program out as a binary trace
+     * @param program The program to be written
+     * @param filePath The trace file path, given as a String
+     * @throws InvalidInputException If the file cannot be written
+     */
+    public static void write(StepProgram program, String filePath) throws InvalidInputException
+    {
+        int numberOfSteps = program.getNumberOfSteps();
+        int numberOfResourceTypes = program.getNumberOfResources();
+
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(RECORD_SIZE * 4096);
+
+            // Counts the group breaks up front, as the header holds the number of records
+            long numberOfRecords = numberOfSteps;
+            if (numberOfSteps > 0)
+                numberOfRecords += program.getGroup(numberOfSteps - 1);
+
+            buffer.putInt(MAGIC);
+            buffer.putInt(FORMAT_VERSION);
+            buffer.putInt(program.getNumberOfTasks());
+            buffer.putInt(numberOfResourceTypes);
+            buffer.putInt(program.getNumberOfGroups());
+            buffer.putInt(program.isSequentialTask() ? SEQUENTIAL_TASK_FLAG : 0);
+            buffer.putLong(numberOfRecords);
+            for (int i = 0; i < numberOfResourceTypes; ++i)
+            {
+                if (buffer.remaining() < 4)
+                    drain(buffer, channel);
+                buffer.putInt(program.getResourceTotal(i));
+            }
+
+            int group = 0;
+            for (int stepID = 0; stepID < numberOfSteps; ++stepID)
+            {
+                while (group < program.getGroup(stepID))
+                {
+                    putRecord(buffer, channel, GROUP_BREAK, 0, 0, 0);
+                    ++group;
+                }
+                putRecord(buffer, channel, (byte) program.getStepType(stepID), program.getReferencedTaskID(stepID),
+                        program.getReferencedResource(stepID), program.getNumberOfResourcesUtilised(stepID));
+            }
+            drain(buffer, channel);
+        }
+        catch (IOException e)
+        {
+            throw new InvalidInputException("Error: Could not write binary trace " + filePath);
+        }
+    } // End of the write method
+
+    /**
+     * Converts a text input file into a binary trace, or every file in a directory into a directory of traces
+     * @param inputPath The text input file or directory
+     * @param outputPath The trace file or directory to be written
+     * @return The number of files converted
+     * @throws InvalidInputException If an input cannot be parsed or an output cannot be written
+     */
+    public static int convert(String inputPath, String outputPath) throws InvalidInputException
+    {
+        Path input = Paths.get(inputPath);
+        if (!Files.isDirectory(input))
+        {
+            write(InputParser.parse(inputPath), outputPath);
+            return 1;
+        }
+
+        List<Path> inputFiles;
+        try (Stream<Path> paths = Files.list(input))
+        {
+            inputFiles = paths.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+            Files.createDirectories(Paths.get(outputPath));
+        }
+        catch (IOException e)
+        {
+            throw new InvalidInputException("Error: Could not convert the directory " + inputPath);
+        }
+        for (Path inputFile : inputFiles)
+        {
+            Path outputFile = Paths.get(outputPath, inputFile.getFileName() + FILE_EXTENSION);
+            write(InputParser.parse(inputFile.toString()), outputFile.toString());
+        }
+        return inputFiles.size();
+    } // End of the convert method
+
+    private static void putRecord(ByteBuffer buffer, FileChannel channel, byte stepType, int taskID,
+                                  int referencedResource, int amount) throws IOException
+    {
+        if (buffer.remaining() < RECORD_SIZE)
+            drain(buffer, channel);
+        buffer.put(stepType);
+        buffer.putInt(taskID);
+        buffer.putInt(referencedResource);
+        buffer.putInt(amount);
+    } // End of the put record method
+
+    private static void drain(ByteBuffer buffer, FileChannel channel) throws IOException
+    {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    } // End of the drain method
+} // End of the binary trace class
@@ -0,0 +1,221 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Capacity sweep object class, running both managers over every combination of resource totals in a grid of ranges.
+ * Every configuration shares the same parsed steps and only differs in its totals, and the configurations are run
+ * on a thread per core, each thread taking the next configuration as soon as it has finished its last
+ */
+public class CapacitySweep
+{
+    // The most configurations a single sweep may run
+    private static final int MAX_CONFIGURATIONS = 1 << 20;
+
+    // Sweep attributes
+    private StepProgram program;
+    private int[][] ranges; // [resource ID] = {first, last, step}
+    private int numberOfConfigurations;
+
+    // Each configuration's totals, indexed by configuration then manager version
+    private long[][] totalTimes;
+    private long[][] totalWaitTimes;
+    private int[][] numberOfAbortedTasks;
+
+    /**
+     * Capacity sweep object constructor
+     * @param program The parsed input, its own totals are replaced by each configuration's
+     * @param ranges The range of totals of each resource type, as read by parseRanges
+     * @throws InvalidInputException If there is not a range for every resource type, or too many configurations
+     */
+    public CapacitySweep(StepProgram program, int[][] ranges) throws InvalidInputException
+    {
+        if (ranges.length != program.getNumberOfResources())
+            throw new InvalidInputException("Error: The sweep gives ranges for " + ranges.length +
+                    " resource(s) but the input has " + program.getNumberOfResources());
+
+        long numberOfConfigurations = 1;
+        for (int[] range : ranges)
+        {
+            numberOfConfigurations *= (range[1] - range[0]) / range[2] + 1;
+            if (numberOfConfigurations > MAX_CONFIGURATIONS)
+                throw new InvalidInputException("Error: The sweep covers more than " + MAX_CONFIGURATIONS +
+                        " configurations");
+        }
+        this.program = program;
+        this.ranges = ranges;
+        this.numberOfConfigurations = (int) numberOfConfigurations;
+    } // End of the capacity sweep constructor
+
+    public int getNumberOfConfigurations() {
+        return numberOfConfigurations;
+    }
+
+    /**
+     * Reads the ranges of a sweep, a comma separated list with an entry per resource type of the form 'total',
+     * 'first:last' or 'first:last:step'
+     * @param spec The ranges, as given on the commandline
+     * @return The range of each resource type, as {first, last, step}
+     * @throws InvalidInputException If an entry is not a valid range
+     */
+    public static int[][] parseRanges(String spec) throws InvalidInputException
+    {
+        String[] entries = spec.split(",", -1);
+        int[][] ranges = new int[entries.length][];
+        for (int resourceID = 0; resourceID < entries.length; ++resourceID)
+        {
+            String[] bounds = entries[resourceID].split(":", -1);
+            try
+            {
+                if (bounds.length > 3)
+                    throw new NumberFormatException();
+                int first = Integer.parseInt(bounds[0]);
+                int last = (bounds.length > 1) ? Integer.parseInt(bounds[1]) : first;
+                int step = (bounds.length > 2) ? Integer.parseInt(bounds[2]) : 1;
+                if ((first < 0) || (last < first) || (step < 1))
+                    throw new NumberFormatException();
+                ranges[resourceID] = new int[]{first, last, step};
+            }
+            catch (NumberFormatException e)
+            {
+                throw new InvalidInputException("Error: Sweep range '" + entries[resourceID] + "' for resource " +
+                        (resourceID + 1) + " is invalid, expected 'total', 'first:last' or 'first:last:step'");
+            }
+        }
+        return ranges;
+    } // End of the parse ranges method
+
+    /**
+     * Finds a configuration's resource totals, the last resource type's range varying fastest
+     * @param configuration The configuration's index, from 0 up to the number of configurations
+     * @return The total of each resource type
+     */
+    public int[] getResourceTotals(int configuration)
+    {
+        int[] resourceTotals = new int[ranges.length];
+        for (int resourceID = ranges.length - 1; resourceID >= 0; --resourceID)
+        {
+            int[] range = ranges[resourceID];
+            int rangeSize = (range[1] - range[0]) / range[2] + 1;
+            resourceTotals[resourceID] = range[0] + (configuration % rangeSize) * range[2];
+            configuration /= rangeSize;
+        }
+        return resourceTotals;
+    } // End of the get resource totals method
+
+    /***** Application Methods *****/
+    /**
+     * [Application Method] Runs both managers over every configuration, then prints a row per configuration
+     * @param options The victim and grant policies and safety check mode every engine runs with, without a trace
+     * @param out The stream the table is written to
+     * @throws InvalidInputException If any configuration fails
+     */
+    public void simulate(SimulationOptions options, PrintStream out) throws InvalidInputException
+    {
+        SimulationOptions sweepOptions = new SimulationOptions(TraceLevel.OFF, options.getVictimPolicy(),
+                options.isParallelSafetyCheck(), null, null);
+        sweepOptions.setGrantPolicy(options.getGrantPolicy());
+        totalTimes = new long[numberOfConfigurations][SimulateResourceManagers.NUMBER_OF_MANAGERS];
+        totalWaitTimes = new long[numberOfConfigurations][SimulateResourceManagers.NUMBER_OF_MANAGERS];
+        numberOfAbortedTasks = new int[numberOfConfigurations][SimulateResourceManagers.NUMBER_OF_MANAGERS];
+
+        int numberOfWorkers = Math.min(numberOfConfigurations, Runtime.getRuntime().availableProcessors());
+        ExecutorService sweepPool = Executors.newFixedThreadPool(numberOfWorkers);
+        AtomicInteger nextConfiguration = new AtomicInteger();
+        try
+        {
+            ArrayList<Future<Void>> workers = new ArrayList<>();
+            for (int i = 0; i < numberOfWorkers; ++i)
+            {
+                workers.add(sweepPool.submit(() ->
+                {
+                    for (int configuration = nextConfiguration.getAndIncrement();
+                         configuration < numberOfConfigurations;
+                         configuration = nextConfiguration.getAndIncrement())
+                        simulateConfiguration(configuration, sweepOptions);
+                    return null;
+                }));
+            }
+            for (Future<Void> worker : workers)
+                worker.get();
+        }
+        catch (ExecutionException e)
+        {
+            if (e.getCause() instanceof InvalidInputException)
+                throw (InvalidInputException) e.getCause();
+            throw new InvalidInputException("Error: A configuration failed during simulation: " + e.getCause());
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InvalidInputException("Error: Interrupted while waiting for the sweep to finish");
+        }
+        finally
+        {
+            sweepPool.shutdown();
+        }
+        printSweepTable(out);
+    } // End of the simulate method
+
+    /**
+     * [Application Method] Runs both managers over a single configuration on a single engine, which restores its
+     * starting state after each run
+     */
+    private void simulateConfiguration(int configuration, SimulationOptions sweepOptions)
+            throws InvalidInputException
+    {
+        SimulationEngine engine = new SimulationEngine(program.withResourceTotals(getResourceTotals(configuration)),
+                new PrintStream(OutputStream.nullOutputStream()), sweepOptions);
+        for (int version = 0; version < SimulateResourceManagers.NUMBER_OF_MANAGERS; ++version)
+        {
+            SimulationResult result = engine.simulationWrapper(version);
+            totalTimes[configuration][version] = result.getTotalTime();
+            totalWaitTimes[configuration][version] = result.getTotalWaitTime();
+            numberOfAbortedTasks[configuration][version] = result.getNumberOfAbortedTasks();
+        }
+    } // End of the simulate configuration method
+
+    /***** Helper Methods *****/
+
+    /**
+     * [Helper Method] Prints each configuration's totals, time spent waiting and aborted tasks under both managers
+     */
+    private void printSweepTable(PrintStream out)
+    {
+        // The totals column is as wide as its widest entry
+        String[] resourceTotals = new String[numberOfConfigurations];
+        int columnWidth = "Totals".length();
+        for (int configuration = 0; configuration < numberOfConfigurations; ++configuration)
+        {
+            StringBuilder totals = new StringBuilder();
+            for (int total : getResourceTotals(configuration))
+                totals.append((totals.length() == 0) ? "" : " ").append(total);
+            resourceTotals[configuration] = totals.toString();
+            columnWidth = Math.max(columnWidth, totals.length());
+        }
+
+        out.println("\t\tSWEEP");
+        out.printf("\t%-" + columnWidth + "s\tFIFO\t\t\t\tBANKER'S\n", "");
+        out.printf("\t%-" + columnWidth + "s\tTime\tWait\tWaiting\t\tAborted\tTime\tWait\tWaiting\t\tAborted\n",
+                "Totals");
+        for (int configuration = 0; configuration < numberOfConfigurations; ++configuration)
+        {
+            out.printf("\t%-" + columnWidth + "s", resourceTotals[configuration]);
+            for (int version = 0; version < SimulateResourceManagers.NUMBER_OF_MANAGERS; ++version)
+            {
+                // Percentage of time spent waiting
+                double percentageOfTimeSpentWaiting = ((double) totalWaitTimes[configuration][version] /
+                        ((double) totalTimes[configuration][version]))*(100.000000);
+                out.printf("\t%d\t%d\t%6f%%\t%d", totalTimes[configuration][version],
+                        totalWaitTimes[configuration][version], percentageOfTimeSpentWaiting,
+                        numberOfAbortedTasks[configuration][version]);
+            }
+            out.println();
+        }
+    } // End of the print sweep table method
+} // End of the capacity sweep class
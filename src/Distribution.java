@@ -0,0 +1,105 @@
+import java.util.Random;
+
+/**
+ * Distribution object class, a distribution of positive integers given on the commandline as 'fixed:n',
+ * 'uniform:min:max' or 'geometric:mean'
+ */
+public class Distribution
+{
+    // Distribution types
+    public static final int FIXED = 0;
+    public static final int UNIFORM = 1;
+    public static final int GEOMETRIC = 2;
+
+    // Type names, indexed by type
+    private static final String[] TYPE_NAMES = {"fixed", "uniform", "geometric"};
+
+    // Distribution attributes
+    private int type;
+    private int minimum; // The value for fixed
+    private int maximum;
+    private double mean;
+
+    /**
+     * Distribution object constructor
+     * @param type The type of distribution
+     * @param minimum The smallest value, or the only value for fixed
+     * @param maximum The largest value for uniform
+     * @param mean The mean for geometric, which is never below 1
+     */
+    public Distribution(int type, int minimum, int maximum, double mean)
+    {
+        this.type = type;
+        this.minimum = minimum;
+        this.maximum = maximum;
+        this.mean = mean;
+    } // End of the distribution constructor
+
+    public int getType() {
+        return type;
+    }
+
+    /**
+     * Reads a distribution from its commandline form
+     * @param spec The distribution, as 'fixed:n', 'uniform:min:max' or 'geometric:mean'
+     * @return The distribution
+     * @throws InvalidInputException If the form is not recognised or its values are not positive
+     */
+    public static Distribution fromSpec(String spec) throws InvalidInputException
+    {
+        String invalidSpec = "Error: Invalid distribution '" + spec + "', expected 'fixed:n', 'uniform:min:max' " +
+                "or 'geometric:mean' with positive values";
+        String[] parts = spec.split(":");
+        try
+        {
+            if ((parts[0].equals(TYPE_NAMES[FIXED])) && (parts.length == 2))
+            {
+                int value = Integer.parseInt(parts[1]);
+                if (value >= 1)
+                    return new Distribution(FIXED, value, value, value);
+            }
+            else if ((parts[0].equals(TYPE_NAMES[UNIFORM])) && (parts.length == 3))
+            {
+                int minimum = Integer.parseInt(parts[1]);
+                int maximum = Integer.parseInt(parts[2]);
+                if ((minimum >= 1) && (maximum >= minimum))
+                    return new Distribution(UNIFORM, minimum, maximum, (minimum + (double) maximum) / 2);
+            }
+            else if ((parts[0].equals(TYPE_NAMES[GEOMETRIC])) && (parts.length == 2))
+            {
+                double mean = Double.parseDouble(parts[1]);
+                if (mean >= 1)
+                    return new Distribution(GEOMETRIC, 1, Integer.MAX_VALUE, mean);
+            }
+        }
+        catch (NumberFormatException e)
+        {
+            throw new InvalidInputException(invalidSpec);
+        }
+        throw new InvalidInputException(invalidSpec);
+    } // End of the from spec method
+
+    /**
+     * Draws a value from the distribution
+     * @param random The source of randomness
+     * @return A value of at least 1
+     */
+    public int sample(Random random)
+    {
+        switch (type)
+        {
+            case UNIFORM:
+                return minimum + (int) (random.nextDouble() * ((long) maximum - minimum + 1));
+            case GEOMETRIC:
+            {
+                // The number of trials up to and including the first success, each succeeding with 1 / mean
+                if (mean == 1)
+                    return 1;
+                double trials = Math.floor(Math.log(1 - random.nextDouble()) / Math.log(1 - 1 / mean));
+                return (int) Math.min(Integer.MAX_VALUE, 1 + trials);
+            }
+            default:
+                return minimum;
+        }
+    } // End of the sample method
+} // End of the distribution class
@@ -0,0 +1,161 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Event log class, the file every run's grants, blocks, releases, aborts and deadlocks are written to. A log is a
+ * header naming the inputs, followed by chunks of up to CHUNK_CAPACITY events, each chunk laid out a column at a
+ * time so a reader only touches the columns it needs:
+ *
+ *   header:  magic (int), format version (int), chunk capacity (int), number of inputs (int),
+ *            then each input name as its length (int) and UTF-8 bytes
+ *   chunk:   input index (int), manager version (int), number of events N (int),
+ *            then N cycles (int), N event types (byte), N task IDs (int), N resource IDs (int), N amounts (int)
+ *
+ * Any number of runs can share a log, each writing whole chunks, so the chunks of different runs interleave
+ */
+public class EventLog implements AutoCloseable
+{
+    // Format constants
+    public static final int MAGIC = 0x524D4556; // "RMEV"
+    public static final int FORMAT_VERSION = 1;
+    public static final int CHUNK_HEADER_SIZE = 12;
+    public static final int EVENT_SIZE = 17; // Bytes per event, across every column
+    public static final int CHUNK_CAPACITY = 1 << 13;
+
+    // Event types
+    public static final byte GRANT = 0; // A request was granted
+    public static final byte BLOCK = 1; // A request could not be granted, the task waits
+    public static final byte RELEASE = 2; // Units were released, they are available from the next cycle
+    public static final byte ABORT = 3; // A task was aborted
+    public static final byte DEADLOCK = 4; // A deadlock was found, the amount is the number of tasks in it
+
+    // Marks the task or resource of an event that has none
+    public static final int NONE = -1;
+
+    // Event type names, indexed by type
+    private static final String[] TYPE_NAMES = {"grant", "block", "release", "abort", "deadlock"};
+
+    // Log attributes
+    private String filePath;
+    private FileChannel channel;
+    private boolean hasFailed; // Set by the first write that fails, reported when the log is closed
+
+    private EventLog(String filePath, FileChannel channel)
+    {
+        this.filePath = filePath;
+        this.channel = channel;
+    } // End of the event log constructor
+
+    /**
+     * Creates a log, writing its header
+     * @param filePath The file to be written
+     * @param inputNames The name of each input, chunks refer to them by index
+     * @return The log, ready for chunks
+     * @throws InvalidInputException If the file cannot be written
+     */
+    public static EventLog open(String filePath, String[] inputNames) throws InvalidInputException
+    {
+        FileChannel channel = null;
+        try
+        {
+            channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+
+            byte[][] encodedNames = new byte[inputNames.length][];
+            int headerSize = 16;
+            for (int i = 0; i < inputNames.length; ++i)
+            {
+                encodedNames[i] = inputNames[i].getBytes(StandardCharsets.UTF_8);
+                headerSize += 4 + encodedNames[i].length;
+            }
+            ByteBuffer header = ByteBuffer.allocate(headerSize);
+            header.putInt(MAGIC);
+            header.putInt(FORMAT_VERSION);
+            header.putInt(CHUNK_CAPACITY);
+            header.putInt(inputNames.length);
+            for (byte[] encodedName : encodedNames)
+            {
+                header.putInt(encodedName.length);
+                header.put(encodedName);
+            }
+            header.flip();
+            while (header.hasRemaining())
+                channel.write(header);
+            return new EventLog(filePath, channel);
+        }
+        catch (IOException e)
+        {
+            closeQuietly(channel);
+            throw new InvalidInputException("Error: Could not write the event log " + filePath);
+        }
+    } // End of the open method
+
+    public String getFilePath() {
+        return filePath;
+    }
+
+    /**
+     * Finds the name of an event type
+     */
+    public static String getTypeName(int type)
+    {
+        return ((type >= 0) && (type < TYPE_NAMES.length)) ? TYPE_NAMES[type] : "unknown";
+    } // End of the get type name method
+
+    /**
+     * Appends a whole chunk, only one run writes at a time so chunks are never torn. A failed write does not stop
+     * the runs, it is reported once the log is closed and every later chunk is dropped
+     * @param chunk The chunk, from its position to its limit
+     */
+    public synchronized void writeChunk(ByteBuffer chunk)
+    {
+        if (hasFailed)
+            return;
+        try
+        {
+            while (chunk.hasRemaining())
+                channel.write(chunk);
+        }
+        catch (IOException e)
+        {
+            hasFailed = true;
+        }
+    } // End of the write chunk method
+
+    /**
+     * Closes the log once every run writing to it has flushed
+     * @throws InvalidInputException If any chunk could not be written
+     */
+    @Override
+    public void close() throws InvalidInputException
+    {
+        try
+        {
+            channel.close();
+        }
+        catch (IOException e)
+        {
+            hasFailed = true;
+        }
+        if (hasFailed)
+            throw new InvalidInputException("Error: Could not write the event log " + filePath);
+    } // End of the close method
+
+    private static void closeQuietly(FileChannel channel)
+    {
+        if (channel == null)
+            return;
+        try
+        {
+            channel.close();
+        }
+        catch (IOException ignored)
+        {
+            // The original failure is the one reported
+        }
+    } // End of the close quietly method
+} // End of the event log class
@@ -0,0 +1,267 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Event log reader object class, scanning an event log a chunk at a time. Each chunk is read into a single reused
+ * buffer and its columns are read straight out of it, so scanning a log of any size allocates nothing per event
+ */
+public class EventLogReader implements AutoCloseable
+{
+    // Manager names, indexed by version
+    private static final String[] MANAGER_NAMES = {"FIFO", "BANKER'S"};
+
+    // Reader attributes
+    private String filePath;
+    private FileChannel channel;
+    private String[] inputNames;
+    private ByteBuffer chunk;
+
+    // The current chunk's run, size and where each of its columns starts
+    private int inputIndex;
+    private int version;
+    private int numberOfEvents;
+    private int typesStart;
+    private int taskIDsStart;
+    private int resourceIDsStart;
+    private int amountsStart;
+
+    private EventLogReader(String filePath, FileChannel channel, String[] inputNames, int chunkCapacity)
+    {
+        this.filePath = filePath;
+        this.channel = channel;
+        this.inputNames = inputNames;
+        this.chunk = ByteBuffer.allocateDirect(EventLog.CHUNK_HEADER_SIZE + chunkCapacity * EventLog.EVENT_SIZE);
+    } // End of the event log reader constructor
+
+    /**
+     * Opens a log, reading its header
+     * @param filePath The log file path, given as a String
+     * @return The reader, positioned before the first chunk
+     * @throws InvalidInputException If the file cannot be read or is not an event log
+     */
+    public static EventLogReader open(String filePath) throws InvalidInputException
+    {
+        FileChannel channel = null;
+        try
+        {
+            channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ);
+            ByteBuffer header = ByteBuffer.allocate(16);
+            if ((!readFully(channel, header)) || (header.getInt(0) != EventLog.MAGIC))
+                throw new InvalidInputException("Error: " + filePath + " is not an event log");
+            if (header.getInt(4) != EventLog.FORMAT_VERSION)
+                throw new InvalidInputException("Error: " + filePath + " uses an unsupported event log version");
+            int chunkCapacity = header.getInt(8);
+            int numberOfInputs = header.getInt(12);
+            if ((chunkCapacity < 1) || (numberOfInputs < 0))
+                throw new InvalidInputException("Error: " + filePath + " has an invalid header");
+
+            String[] inputNames = new String[numberOfInputs];
+            ByteBuffer nameLength = ByteBuffer.allocate(4);
+            for (int i = 0; i < numberOfInputs; ++i)
+            {
+                nameLength.clear();
+                if (!readFully(channel, nameLength))
+                    throw new InvalidInputException("Error: " + filePath + " is truncated");
+                ByteBuffer name = ByteBuffer.allocate(nameLength.getInt(0));
+                if (!readFully(channel, name))
+                    throw new InvalidInputException("Error: " + filePath + " is truncated");
+                inputNames[i] = new String(name.array(), StandardCharsets.UTF_8);
+            }
+            return new EventLogReader(filePath, channel, inputNames, chunkCapacity);
+        }
+        catch (IOException | IllegalArgumentException e)
+        {
+            closeQuietly(channel);
+            throw new InvalidInputException("Error: Could not read the event log " + filePath);
+        }
+        catch (InvalidInputException e)
+        {
+            closeQuietly(channel);
+            throw e;
+        }
+    } // End of the open method
+
+    public String[] getInputNames() {
+        return inputNames;
+    }
+
+    public int getInputIndex() {
+        return inputIndex;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public int getNumberOfEvents() {
+        return numberOfEvents;
+    }
+
+    public int getCycle(int event) {
+        return chunk.getInt(EventLog.CHUNK_HEADER_SIZE + 4 * event);
+    }
+
+    public byte getType(int event) {
+        return chunk.get(typesStart + event);
+    }
+
+    public int getTaskID(int event) {
+        return chunk.getInt(taskIDsStart + 4 * event);
+    }
+
+    public int getResourceID(int event) {
+        return chunk.getInt(resourceIDsStart + 4 * event);
+    }
+
+    public int getAmount(int event) {
+        return chunk.getInt(amountsStart + 4 * event);
+    }
+
+    /**
+     * Reads the next chunk, replacing the current one
+     * @return false once the end of the log has been reached
+     * @throws InvalidInputException If the log is truncated or the chunk is not valid
+     */
+    public boolean nextChunk() throws InvalidInputException
+    {
+        try
+        {
+            chunk.clear();
+            chunk.limit(EventLog.CHUNK_HEADER_SIZE);
+            if (channel.read(chunk) <= 0)
+                return false;
+            if (!readFully(channel, chunk))
+                throw new InvalidInputException("Error: " + filePath + " is truncated");
+
+            inputIndex = chunk.getInt(0);
+            version = chunk.getInt(4);
+            numberOfEvents = chunk.getInt(8);
+            if ((inputIndex < 0) || (inputIndex >= inputNames.length) || (numberOfEvents < 1)
+                    || (EventLog.CHUNK_HEADER_SIZE + (long) numberOfEvents * EventLog.EVENT_SIZE > chunk.capacity()))
+                throw new InvalidInputException("Error: " + filePath + " has an invalid chunk");
+
+            chunk.limit(EventLog.CHUNK_HEADER_SIZE + numberOfEvents * EventLog.EVENT_SIZE);
+            if (!readFully(channel, chunk))
+                throw new InvalidInputException("Error: " + filePath + " is truncated");
+            typesStart = EventLog.CHUNK_HEADER_SIZE + 4 * numberOfEvents;
+            taskIDsStart = typesStart + numberOfEvents;
+            resourceIDsStart = taskIDsStart + 4 * numberOfEvents;
+            amountsStart = resourceIDsStart + 4 * numberOfEvents;
+            return true;
+        }
+        catch (IOException e)
+        {
+            throw new InvalidInputException("Error: Could not read the event log " + filePath);
+        }
+    } // End of the next chunk method
+
+    @Override
+    public void close()
+    {
+        closeQuietly(channel);
+    } // End of the close method
+
+    /**
+     * Scans a whole log, printing each run's event counts and the last cycle an event happened in, and every event
+     * along the way if asked for
+     * @param filePath The log file path, given as a String
+     * @param isPrintingEvents Whether every event is printed as it is read
+     * @param out The stream the events and summary are written to
+     * @throws InvalidInputException If the file cannot be read or is not a valid event log
+     */
+    public static void summarise(String filePath, boolean isPrintingEvents, PrintStream out)
+            throws InvalidInputException
+    {
+        try (EventLogReader reader = open(filePath))
+        {
+            String[] inputNames = reader.getInputNames();
+            int numberOfRuns = inputNames.length * SimulateResourceManagers.NUMBER_OF_MANAGERS;
+            long[][] eventCounts = new long[numberOfRuns][EventLog.DEADLOCK + 1];
+            int[] lastCycles = new int[numberOfRuns];
+            boolean[] hasEvents = new boolean[numberOfRuns];
+            long totalEvents = 0;
+
+            while (reader.nextChunk())
+            {
+                int version = reader.getVersion();
+                if ((version < 0) || (version >= SimulateResourceManagers.NUMBER_OF_MANAGERS))
+                    throw new InvalidInputException("Error: " + filePath + " has a chunk from an unknown manager");
+                int run = reader.getInputIndex() * SimulateResourceManagers.NUMBER_OF_MANAGERS + version;
+                hasEvents[run] = true;
+                totalEvents += reader.getNumberOfEvents();
+
+                for (int event = 0; event < reader.getNumberOfEvents(); ++event)
+                {
+                    byte type = reader.getType(event);
+                    if ((type < 0) || (type > EventLog.DEADLOCK))
+                        throw new InvalidInputException("Error: " + filePath + " has an unknown event type");
+                    ++eventCounts[run][type];
+                    lastCycles[run] = Math.max(lastCycles[run], reader.getCycle(event));
+
+                    if (isPrintingEvents)
+                        out.println(inputNames[reader.getInputIndex()] + " " + MANAGER_NAMES[version] + " " +
+                                reader.formatEvent(event));
+                }
+            }
+
+            for (int run = 0; run < numberOfRuns; ++run)
+            {
+                if (!hasEvents[run])
+                    continue;
+                out.print(inputNames[run / SimulateResourceManagers.NUMBER_OF_MANAGERS] + " " +
+                        MANAGER_NAMES[run % SimulateResourceManagers.NUMBER_OF_MANAGERS] + ":");
+                for (int type = 0; type <= EventLog.DEADLOCK; ++type)
+                    out.print(" " + EventLog.getTypeName(type) + "=" + eventCounts[run][type]);
+                out.println(" last cycle=" + lastCycles[run]);
+            }
+            out.println("Events read: " + totalEvents);
+        }
+    } // End of the summarise method
+
+    /**
+     * Formats a single event of the current chunk, with task and resource numbers counted from 1 as in the input
+     */
+    public String formatEvent(int event)
+    {
+        String description = "cycle " + getCycle(event) + ": " + EventLog.getTypeName(getType(event));
+        if (getType(event) == EventLog.DEADLOCK)
+            return description + " of " + getAmount(event) + " tasks";
+        description += " task " + (getTaskID(event) + 1);
+        if (getResourceID(event) != EventLog.NONE)
+            description += " resource " + (getResourceID(event) + 1) + " amount " + getAmount(event);
+        return description;
+    } // End of the format event method
+
+    /**
+     * Reads until the buffer is full
+     * @return false if the end of the file was reached first
+     */
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer) throws IOException
+    {
+        while (buffer.hasRemaining())
+        {
+            if (channel.read(buffer) < 0)
+                return false;
+        }
+        return true;
+    } // End of the read fully method
+
+    private static void closeQuietly(FileChannel channel)
+    {
+        if (channel == null)
+            return;
+        try
+        {
+            channel.close();
+        }
+        catch (IOException ignored)
+        {
+            // Nothing was written, so nothing can be lost
+        }
+    } // End of the close quietly method
+} // End of the event log reader class
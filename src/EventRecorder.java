@@ -0,0 +1,89 @@
+import java.nio.ByteBuffer;
+
+/**
+ * Event recorder object class, buffering a single run's events a column at a time and writing each full chunk to
+ * the shared event log. Recording an event is a handful of array stores, the log is only touched once per chunk
+ */
+public class EventRecorder
+{
+    // Recorder attributes
+    private EventLog eventLog;
+    private int inputIndex;
+    private int version; // 0 = ORM, 1 = Banker's
+
+    // The chunk being filled, one array per column
+    private int[] cycles;
+    private byte[] types;
+    private int[] taskIDs;
+    private int[] resourceIDs;
+    private int[] amounts;
+    private int numberOfEvents;
+
+    // Reused for every chunk written
+    private ByteBuffer chunk;
+
+    /**
+     * Event recorder object constructor
+     * @param eventLog The log every chunk is written to
+     * @param inputIndex The index of the input being run, among the log's input names
+     * @param version The manager being run, 0 is the ORM, 1 is banker's algorithm
+     */
+    public EventRecorder(EventLog eventLog, int inputIndex, int version)
+    {
+        this.eventLog = eventLog;
+        this.inputIndex = inputIndex;
+        this.version = version;
+        this.cycles = new int[EventLog.CHUNK_CAPACITY];
+        this.types = new byte[EventLog.CHUNK_CAPACITY];
+        this.taskIDs = new int[EventLog.CHUNK_CAPACITY];
+        this.resourceIDs = new int[EventLog.CHUNK_CAPACITY];
+        this.amounts = new int[EventLog.CHUNK_CAPACITY];
+        this.chunk = ByteBuffer.allocateDirect(EventLog.CHUNK_HEADER_SIZE
+                + EventLog.CHUNK_CAPACITY * EventLog.EVENT_SIZE);
+    } // End of the event recorder constructor
+
+    /**
+     * Records a single event, writing out the chunk once it is full
+     * @param cycle The cycle the event happened in
+     * @param type The event type, see EventLog
+     * @param taskID The task the event happened to, or EventLog.NONE
+     * @param resourceID The resource the event happened to, or EventLog.NONE
+     * @param amount The number of units involved, or the number of tasks in a deadlock
+     */
+    public void record(int cycle, byte type, int taskID, int resourceID, int amount)
+    {
+        cycles[numberOfEvents] = cycle;
+        types[numberOfEvents] = type;
+        taskIDs[numberOfEvents] = taskID;
+        resourceIDs[numberOfEvents] = resourceID;
+        amounts[numberOfEvents] = amount;
+        if (++numberOfEvents == EventLog.CHUNK_CAPACITY)
+            flush();
+    } // End of the record method
+
+    /**
+     * Writes out whatever has been recorded since the last chunk
+     */
+    public void flush()
+    {
+        if (numberOfEvents == 0)
+            return;
+
+        chunk.clear();
+        chunk.putInt(inputIndex);
+        chunk.putInt(version);
+        chunk.putInt(numberOfEvents);
+        chunk.asIntBuffer().put(cycles, 0, numberOfEvents);
+        chunk.position(chunk.position() + 4 * numberOfEvents);
+        chunk.put(types, 0, numberOfEvents);
+        chunk.asIntBuffer().put(taskIDs, 0, numberOfEvents);
+        chunk.position(chunk.position() + 4 * numberOfEvents);
+        chunk.asIntBuffer().put(resourceIDs, 0, numberOfEvents);
+        chunk.position(chunk.position() + 4 * numberOfEvents);
+        chunk.asIntBuffer().put(amounts, 0, numberOfEvents);
+        chunk.position(chunk.position() + 4 * numberOfEvents);
+        chunk.flip();
+        eventLog.writeChunk(chunk);
+        numberOfEvents = 0;
+    } // End of the flush method
+} // End of the event recorder class
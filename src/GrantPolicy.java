@@ -0,0 +1,104 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Grant policy class, the orders the ORM can serve the requests queued on a resource in once its units are freed.
+ * Every policy breaks ties on the cycle a request blocked in and then on the lowest task ID, so first come first
+ * served on its own is the original behaviour. Priority classes come from a priority map given alongside the input,
+ * without one every task is in the same class
+ */
+public class GrantPolicy
+{
+    // Grant policies
+    public static final int FCFS = 0; // The request that blocked first
+    public static final int PRIORITY = 1; // The task in the highest priority class, the first line of the priority map
+    public static final int SHORTEST_NEED = 2; // The task with the fewest units left to request, counting this one
+    public static final int AGING = 3; // Shortest need, with every cycle spent waiting counting as one unit less
+
+    // Policy names, indexed by policy, along with 'all' that compares every policy
+    private static final NameTable POLICY_NAMES = new NameTable("grant policy",
+            new String[]{"fcfs", "priority", "shortest-need", "aging"}, "all");
+
+    public static final int NUMBER_OF_POLICIES = POLICY_NAMES.size();
+
+    /**
+     * Reads a grant policy from its name
+     * @param name The policy's name, as given on the commandline
+     * @return The grant policy
+     * @throws InvalidInputException If there is no policy with that name
+     */
+    public static int fromName(String name) throws InvalidInputException
+    {
+        return POLICY_NAMES.fromName(name);
+    } // End of the from name method
+
+    public static String getName(int policy) {
+        return POLICY_NAMES.getName(policy);
+    }
+
+    /**
+     * Reads a priority map, each non-empty line listing the tasks of one priority class counted from 1 as in the
+     * input, separated by spaces or commas. The first line is the highest class, and every task left out of the map
+     * shares the class below the last line
+     * @param filePath The priority map file path, given as a String
+     * @param numberOfTasks The number of tasks in the program being simulated
+     * @return Each task's priority class, indexed by task ID, the lower the class the sooner it is served
+     * @throws InvalidInputException If the map cannot be read, or lists a task that does not exist or twice
+     */
+    public static int[] readPriorityMap(String filePath, int numberOfTasks) throws InvalidInputException
+    {
+        List<String> lines;
+        try
+        {
+            lines = Files.readAllLines(Paths.get(filePath), StandardCharsets.UTF_8);
+        }
+        catch (IOException e)
+        {
+            throw new InvalidInputException("Error: Could not read the priority map " + filePath);
+        }
+
+        int[] priorityClassOfEachTask = new int[numberOfTasks];
+        Arrays.fill(priorityClassOfEachTask, -1);
+        int numberOfClasses = 0;
+        for (int lineNumber = 1; lineNumber <= lines.size(); ++lineNumber)
+        {
+            String line = lines.get(lineNumber - 1).trim();
+            if (line.isEmpty())
+                continue;
+
+            for (String token : line.split("[\\s,]+"))
+            {
+                int taskNumber;
+                try
+                {
+                    taskNumber = Integer.parseInt(token);
+                }
+                catch (NumberFormatException e)
+                {
+                    throw new InvalidInputException("Error: Line " + lineNumber + " of the priority map " +
+                            filePath + " has " + token + " where a task was expected");
+                }
+                if ((taskNumber < 1) || (taskNumber > numberOfTasks))
+                    throw new InvalidInputException("Error: Line " + lineNumber + " of the priority map " +
+                            filePath + " references task " + taskNumber + " which does not exist");
+                if (priorityClassOfEachTask[taskNumber - 1] != -1)
+                    throw new InvalidInputException("Error: Line " + lineNumber + " of the priority map " +
+                            filePath + " lists task " + taskNumber + " which is already in a class");
+                priorityClassOfEachTask[taskNumber - 1] = numberOfClasses;
+            }
+            ++numberOfClasses;
+        }
+
+        // Tasks left out of the map share the lowest class
+        for (int taskID = 0; taskID < numberOfTasks; ++taskID)
+        {
+            if (priorityClassOfEachTask[taskID] == -1)
+                priorityClassOfEachTask[taskID] = numberOfClasses;
+        }
+        return priorityClassOfEachTask;
+    } // End of the read priority map method
+} // End of the grant policy class
@@ -0,0 +1,165 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Grant policy comparison class, running the ORM under every grant policy at the same time, each on its own engine,
+ * and printing a single table with a column per policy in place of the usual FIFO table
+ */
+public class GrantPolicyComparison
+{
+    // Width of each policy's column
+    private static final int COLUMN_WIDTH = 24;
+
+    /**
+     * Compares every grant policy over a program, followed by the banker's table as usual
+     * @param program The parsed input shared by every engine
+     * @param options The trace level, victim policy and safety check mode, policies are compared without a trace
+     * @param out The stream the tables are written to
+     * @throws InvalidInputException If any run fails
+     */
+    public static void compare(StepProgram program, SimulationOptions options, PrintStream out)
+            throws InvalidInputException
+    {
+        ExecutorService policyPool = Executors.newFixedThreadPool(GrantPolicy.NUMBER_OF_POLICIES + 1);
+        try
+        {
+            ArrayList<Future<SimulationMetrics>> policyOutputs = new ArrayList<>();
+            for (int policy = 0; policy < GrantPolicy.NUMBER_OF_POLICIES; ++policy)
+            {
+                SimulationOptions policyOptions = new SimulationOptions(TraceLevel.OFF, options.getVictimPolicy(),
+                        options.isParallelSafetyCheck(), null, null);
+                policyOptions.setGrantPolicy(policy);
+                policyOptions.setPriorityClassOfEachTask(options.getPriorityClassOfEachTask());
+                policyOutputs.add(policyPool.submit(() -> simulatePolicy(program, policyOptions)));
+            }
+            Future<SimulationResult> bankersOutput = policyPool.submit(() ->
+                    SimulateResourceManagers.simulateManager(program, 1, options, null, 0));
+
+            SimulationMetrics[] policyMetrics = new SimulationMetrics[GrantPolicy.NUMBER_OF_POLICIES];
+            for (int policy = 0; policy < policyMetrics.length; ++policy)
+                policyMetrics[policy] = policyOutputs.get(policy).get();
+            printPolicyTable(policyMetrics, out);
+            out.print(bankersOutput.get().getOutput());
+        }
+        catch (ExecutionException e)
+        {
+            if (e.getCause() instanceof InvalidInputException)
+                throw (InvalidInputException) e.getCause();
+            throw new InvalidInputException("Error: A manager failed during simulation: " + e.getCause());
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InvalidInputException("Error: Interrupted while waiting for the managers to finish");
+        }
+        finally
+        {
+            policyPool.shutdown();
+        }
+    } // End of the compare method
+
+    /**
+     * Runs the ORM under a single grant policy, keeping only what it measured
+     */
+    private static SimulationMetrics simulatePolicy(StepProgram program, SimulationOptions policyOptions)
+            throws InvalidInputException
+    {
+        SimulationEngine engine = new SimulationEngine(program, new PrintStream(OutputStream.nullOutputStream()),
+                policyOptions);
+        engine.setCollectingMetrics(true);
+        return engine.simulationWrapper(0).getMetrics();
+    } // End of the simulate policy method
+
+    /**
+     * Prints each task's turnaround time, wait time and percentage of time spent waiting under every policy, then
+     * every policy's totals, and which policies finished tasks the fastest and kept them waiting the least
+     */
+    private static void printPolicyTable(SimulationMetrics[] policyMetrics, PrintStream out)
+    {
+        int numberOfPolicies = policyMetrics.length;
+        String[] cells = new String[numberOfPolicies];
+        out.println("\t\tFIFO BY GRANT POLICY");
+        for (int policy = 0; policy < numberOfPolicies; ++policy)
+            cells[policy] = GrantPolicy.getName(policy);
+        printRow("", cells, out);
+
+        int numberOfTasks = policyMetrics[0].getNumberOfTasks();
+        long[] totalTimes = new long[numberOfPolicies];
+        long[] totalWaitTimes = new long[numberOfPolicies];
+        int[] numberOfAbortedTasks = new int[numberOfPolicies];
+        for (int taskID = 0; taskID < numberOfTasks; ++taskID)
+        {
+            for (int policy = 0; policy < numberOfPolicies; ++policy)
+            {
+                SimulationMetrics metrics = policyMetrics[policy];
+                if (metrics.isTaskAborted(taskID))
+                {
+                    ++numberOfAbortedTasks[policy];
+                    cells[policy] = "aborted";
+                    continue;
+                }
+                totalTimes[policy] += metrics.getTaskTurnaroundTime(taskID);
+                totalWaitTimes[policy] += metrics.getTaskWaitTime(taskID);
+                cells[policy] = formatTimes(metrics.getTaskTurnaroundTime(taskID), metrics.getTaskWaitTime(taskID));
+            }
+            printRow("Task " + (taskID + 1), cells, out);
+        }
+
+        // Prints out each policy's totals, ties go to the policy listed first
+        int highestThroughputPolicy = 0;
+        int lowestMeanWaitPolicy = 0;
+        double[] meanWaitTimes = new double[numberOfPolicies];
+        for (int policy = 0; policy < numberOfPolicies; ++policy)
+        {
+            int numberOfFinishedTasks = numberOfTasks - numberOfAbortedTasks[policy];
+            meanWaitTimes[policy] = (numberOfFinishedTasks == 0) ? 0
+                    : (double) totalWaitTimes[policy] / numberOfFinishedTasks;
+            if (policyMetrics[policy].getThroughput() > policyMetrics[highestThroughputPolicy].getThroughput())
+                highestThroughputPolicy = policy;
+            if (meanWaitTimes[policy] < meanWaitTimes[lowestMeanWaitPolicy])
+                lowestMeanWaitPolicy = policy;
+        }
+        for (int policy = 0; policy < numberOfPolicies; ++policy)
+            cells[policy] = formatTimes(totalTimes[policy], totalWaitTimes[policy]);
+        printRow("Total", cells, out);
+        for (int policy = 0; policy < numberOfPolicies; ++policy)
+            cells[policy] = Integer.toString(numberOfAbortedTasks[policy]);
+        printRow("Aborted", cells, out);
+        for (int policy = 0; policy < numberOfPolicies; ++policy)
+            cells[policy] = String.format("%.2f", meanWaitTimes[policy]);
+        printRow("Mean wait", cells, out);
+        for (int policy = 0; policy < numberOfPolicies; ++policy)
+            cells[policy] = Integer.toString(policyMetrics[policy].getNumberOfCycles());
+        printRow("Cycles", cells, out);
+        for (int policy = 0; policy < numberOfPolicies; ++policy)
+            cells[policy] = String.format("%.6f", policyMetrics[policy].getThroughput());
+        printRow("Throughput", cells, out);
+        out.println("\tHighest throughput: " + GrantPolicy.getName(highestThroughputPolicy) +
+                ", lowest mean wait: " + GrantPolicy.getName(lowestMeanWaitPolicy));
+    } // End of the print policy table method
+
+    /**
+     * Prints a single row of the table, padding every column but the last
+     */
+    private static void printRow(String label, String[] cells, PrintStream out)
+    {
+        StringBuilder row = new StringBuilder(String.format("\t%-12s", label));
+        for (int policy = 0; policy < cells.length - 1; ++policy)
+            row.append(String.format("%-" + COLUMN_WIDTH + "s", cells[policy]));
+        out.println(row.append(cells[cells.length - 1]));
+    } // End of the print row method
+
+    /**
+     * Formats a turnaround time, wait time and the percentage of time spent waiting as a single cell
+     */
+    private static String formatTimes(long turnAround, long waitTime)
+    {
+        double percentageOfTimeSpentWaiting = ((double) waitTime / ((double) turnAround)) * (100.000000);
+        return String.format("%d %d %.2f%%", turnAround, waitTime, percentageOfTimeSpentWaiting);
+    } // End of the format times method
+} // End of the grant policy comparison class
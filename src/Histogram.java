@@ -0,0 +1,81 @@
+/**
+ * Histogram object class, counting non-negative values in power of two buckets so recording a value is a couple of
+ * instructions and the histogram never grows. Bucket 0 holds 0, and bucket k holds [2^(k - 1), 2^k)
+ */
+public class Histogram
+{
+    // One bucket for 0, then one per bit of a non-negative long
+    public static final int NUMBER_OF_BUCKETS = 64;
+
+    // Histogram attributes
+    private long[] counts;
+    private long count;
+    private long sum;
+    private long maximum;
+
+    /**
+     * Histogram object constructor, starting empty
+     */
+    public Histogram()
+    {
+        this.counts = new long[NUMBER_OF_BUCKETS];
+    } // End of the histogram constructor
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    public long getMaximum() {
+        return maximum;
+    }
+
+    public long getBucketCount(int bucket) {
+        return counts[bucket];
+    }
+
+    /**
+     * Records a single value
+     * @param value The value to be recorded, never negative
+     */
+    public void record(long value)
+    {
+        ++counts[NUMBER_OF_BUCKETS - Long.numberOfLeadingZeros(value)];
+        ++count;
+        sum += value;
+        maximum = Math.max(maximum, value);
+    } // End of the record method
+
+    public double getMean() {
+        return (count == 0) ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Finds an upper bound on a percentile, the top of the bucket the percentile falls in
+     * @param percentile The percentile, between 0 and 100
+     * @return The largest value the bucket could hold, never more than the largest value recorded
+     */
+    public long getPercentile(double percentile)
+    {
+        long rank = (long) Math.ceil(count * percentile / 100);
+        long seen = 0;
+        for (int bucket = 0; bucket < NUMBER_OF_BUCKETS; ++bucket)
+        {
+            seen += counts[bucket];
+            if ((seen >= rank) && (seen > 0))
+                return Math.min(maximum, getBucketUpperBound(bucket));
+        }
+        return maximum;
+    } // End of the get percentile method
+
+    /**
+     * Finds the largest value a bucket holds
+     */
+    public static long getBucketUpperBound(int bucket)
+    {
+        return (bucket == 0) ? 0 : (bucket == NUMBER_OF_BUCKETS - 1) ? Long.MAX_VALUE : (1L << bucket) - 1;
+    } // End of the get bucket upper bound method
+} // End of the histogram class
@@ -0,0 +1,298 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Input parser class, a byte level tokenizer reading the input file through a fixed size buffer, so that
+ * arbitrarily large traces are parsed without a Scanner or a String per line
+ */
+public class InputParser
+{
+    // Parser constants
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int END_OF_FILE = -1;
+    private static final int MAXIMUM_ACTIVITY_LENGTH = 16;
+    private static final int INITIAL_STEP_CAPACITY = 64;
+    private static final byte[][] ACTIVITY_NAMES = { // Indexed by step type
+            "initiate".getBytes(), "request".getBytes(), "compute".getBytes(),
+            "release".getBytes(), "terminate".getBytes()};
+
+    // Parser attributes
+    private FileChannel channel;
+    private ByteBuffer buffer;
+    private byte[] activity;
+    private int lineNumber;
+
+    // Step columns, grown by doubling as activities are read
+    private int numberOfSteps;
+    private byte[] stepTypes;
+    private int[] groups;
+    private int[] referencedTasks;
+    private int[] referencedResources;
+    private int[] amounts;
+
+    /**
+     * Input parser constructor
+     * @param channel The open channel to read the input from
+     */
+    private InputParser(FileChannel channel)
+    {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        this.buffer.flip(); // Starts empty, so the first read fills it
+        this.activity = new byte[MAXIMUM_ACTIVITY_LENGTH];
+        this.lineNumber = 1;
+        this.stepTypes = new byte[INITIAL_STEP_CAPACITY];
+        this.groups = new int[INITIAL_STEP_CAPACITY];
+        this.referencedTasks = new int[INITIAL_STEP_CAPACITY];
+        this.referencedResources = new int[INITIAL_STEP_CAPACITY];
+        this.amounts = new int[INITIAL_STEP_CAPACITY];
+    } // End of the input parser constructor
+
+    /**
+     * Reads a program from an input file
+     * @param filePath The input file path, given as a String
+     * @return The parsed program
+     * @throws InvalidInputException If the file cannot be read or is malformed
+     */
+    public static StepProgram parse(String filePath) throws InvalidInputException
+    {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ))
+        {
+            return new InputParser(channel).parseProgram();
+        }
+        catch (IOException e)
+        {
+            throw new InvalidInputException("Error: Could not read input file " + filePath);
+        }
+    } // End of the parse method
+
+    /**
+     * Parses the T R n1..nR header followed by one activity per line
+     */
+    private StepProgram parseProgram() throws IOException, InvalidInputException
+    {
+        int numberOfTasks = nextInt(); // Reads in T: the number of tasks to be run
+        int numberOfResourceTypes = nextInt(); // Reads in R: The number of resource types available
+
+        // Reads in the resource totals
+        int[] resourceTotals = new int[numberOfResourceTypes];
+        for (int i = 0; i < numberOfResourceTypes; ++i)
+            resourceTotals[i] = nextInt();
+        skipRestOfLine();
+
+        int numberOfGroups = 0;
+        boolean isSequentialTask = true;
+        boolean hasSkippedLeadingBlankLine = false;
+        boolean isTask1Running = false;
+        boolean isTask2Running = false;
+        while (true)
+        {
+            skipSpacesOnLine();
+            int nextByte = peek();
+            if (nextByte == END_OF_FILE)
+                break;
+
+            // Blank lines separate groups, apart from a single one straight after the header
+            if (nextByte == '\n')
+            {
+                consumeNewline();
+                if ((numberOfSteps == 0) && (!hasSkippedLeadingBlankLine))
+                    hasSkippedLeadingBlankLine = true;
+                else
+                    ++numberOfGroups;
+                continue;
+            }
+
+            int stepType = nextActivity();
+            int referencedTaskRaw = nextIntOnLine();
+            int referencedResourceRaw = nextIntOnLine();
+            int numberOfResourcesUtilised = nextIntOnLine();
+            skipRestOfLine();
+
+            // Keeps track of whether tasks 1 and 2 ever run at the same time
+            if (referencedTaskRaw == 1)
+                isTask1Running = (stepType == 0) || ((isTask1Running) && (stepType != 4));
+            else if (referencedTaskRaw == 2)
+                isTask2Running = (stepType == 0) || ((isTask2Running) && (stepType != 4));
+            if (isSequentialTask)
+                isSequentialTask = !((isTask1Running) && (isTask2Running));
+
+            // Compute and terminate keep their raw value, every other activity references a resource
+            int referencedResource = ((stepType == 2) || (stepType == 4))
+                    ? referencedResourceRaw : referencedResourceRaw - 1;
+
+            // Sanity check: the task and resource have to exist
+            if ((referencedTaskRaw < 1) || (referencedTaskRaw > numberOfTasks))
+                throw new InvalidInputException("Error: Activity on line " + lineNumber + " references task " +
+                        referencedTaskRaw + " which does not exist");
+            if ((stepType != 2) && (stepType != 4)
+                    && ((referencedResource < 0) || (referencedResource >= numberOfResourceTypes)))
+                throw new InvalidInputException("Error: Activity on line " + lineNumber + " references resource " +
+                        referencedResourceRaw + " which does not exist");
+
+            addStep(stepType, numberOfGroups, referencedTaskRaw - 1, referencedResource, numberOfResourcesUtilised);
+        } // End of scanning through the input file
+        if (numberOfGroups == 0)
+            numberOfGroups = 1;
+
+        return new StepProgram(numberOfTasks, resourceTotals, numberOfSteps, stepTypes, groups, referencedTasks,
+                referencedResources, amounts, numberOfGroups, isSequentialTask);
+    } // End of the parse program method
+
+    /**
+     * Appends a step to the end of the step columns, doubling them when they are full
+     */
+    private void addStep(int stepType, int group, int taskID, int referencedResource, int amount)
+    {
+        if (numberOfSteps == stepTypes.length)
+        {
+            int capacity = numberOfSteps << 1;
+            stepTypes = Arrays.copyOf(stepTypes, capacity);
+            groups = Arrays.copyOf(groups, capacity);
+            referencedTasks = Arrays.copyOf(referencedTasks, capacity);
+            referencedResources = Arrays.copyOf(referencedResources, capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+        }
+        stepTypes[numberOfSteps] = (byte) stepType;
+        groups[numberOfSteps] = group;
+        referencedTasks[numberOfSteps] = taskID;
+        referencedResources[numberOfSteps] = referencedResource;
+        amounts[numberOfSteps] = amount;
+        ++numberOfSteps;
+    } // End of the add step method
+
+    /***** Tokenizer Methods *****/
+    /**
+     * Looks at the next byte without consuming it
+     * @return The next byte, or END_OF_FILE
+     */
+    private int peek() throws IOException
+    {
+        if (!buffer.hasRemaining())
+        {
+            buffer.clear();
+            int bytesRead = channel.read(buffer);
+            buffer.flip();
+            if (bytesRead <= 0)
+                return END_OF_FILE;
+        }
+        return buffer.get(buffer.position());
+    } // End of the peek method
+
+    private void consume()
+    {
+        buffer.position(buffer.position() + 1);
+    } // End of the consume method
+
+    private void consumeNewline()
+    {
+        consume();
+        ++lineNumber;
+    } // End of the consume newline method
+
+    /**
+     * Skips spaces, tabs and carriage returns, stopping at a newline
+     */
+    private void skipSpacesOnLine() throws IOException
+    {
+        int nextByte = peek();
+        while ((nextByte == ' ') || (nextByte == '\t') || (nextByte == '\r'))
+        {
+            consume();
+            nextByte = peek();
+        }
+    } // End of the skip spaces on line method
+
+    /**
+     * Skips to the start of the next line, which may only hold whitespace before it
+     */
+    private void skipRestOfLine() throws IOException, InvalidInputException
+    {
+        skipSpacesOnLine();
+        int nextByte = peek();
+        if (nextByte == '\n')
+            consumeNewline();
+        else if (nextByte != END_OF_FILE)
+            throw new InvalidInputException("Error: Unexpected '" + (char) nextByte + "' on line " + lineNumber);
+    } // End of the skip rest of line method
+
+    /**
+     * Reads the next integer, which may be on a later line
+     */
+    private int nextInt() throws IOException, InvalidInputException
+    {
+        int nextByte = peek();
+        while ((nextByte == ' ') || (nextByte == '\t') || (nextByte == '\r') || (nextByte == '\n'))
+        {
+            if (nextByte == '\n')
+                consumeNewline();
+            else
+                consume();
+            nextByte = peek();
+        }
+        return readDigits();
+    } // End of the next int method
+
+    /**
+     * Reads the next integer, which has to be on the current line
+     */
+    private int nextIntOnLine() throws IOException, InvalidInputException
+    {
+        skipSpacesOnLine();
+        return readDigits();
+    } // End of the next int on line method
+
+    private int readDigits() throws IOException, InvalidInputException
+    {
+        int nextByte = peek();
+        if ((nextByte < '0') || (nextByte > '9'))
+            throw new InvalidInputException("Error: Expected a number on line " + lineNumber);
+
+        long value = 0;
+        while ((nextByte >= '0') && (nextByte <= '9'))
+        {
+            value = value * 10 + (nextByte - '0');
+            if (value > Integer.MAX_VALUE)
+                throw new InvalidInputException("Error: Number too large on line " + lineNumber);
+            consume();
+            nextByte = peek();
+        }
+        return (int) value;
+    } // End of the read digits method
+
+    /**
+     * Reads the activity name at the start of a line, matching it against the known activities byte by byte
+     * @return The step type of the activity
+     */
+    private int nextActivity() throws IOException, InvalidInputException
+    {
+        int length = 0;
+        int nextByte = peek();
+        while ((nextByte >= 'a') && (nextByte <= 'z'))
+        {
+            if (length == MAXIMUM_ACTIVITY_LENGTH)
+                break;
+            activity[length++] = (byte) nextByte;
+            consume();
+            nextByte = peek();
+        }
+
+        for (int stepType = 0; stepType < ACTIVITY_NAMES.length; ++stepType)
+        {
+            byte[] name = ACTIVITY_NAMES[stepType];
+            if (name.length != length)
+                continue;
+            int i = 0;
+            while ((i < length) && (name[i] == activity[i]))
+                ++i;
+            if (i == length)
+                return stepType;
+        }
+        throw new InvalidInputException("Error: Invalid activity found on line " + lineNumber +
+                ", please check the spelling in the input file");
+    } // End of the next activity method
+} // End of the input parser class
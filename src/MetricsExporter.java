@@ -0,0 +1,199 @@
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+/**
+ * Metrics exporter class, writing the metrics of every run out as JSON when the file name ends in .json, or as CSV
+ * otherwise. The CSV has a row per value, of the form input,manager,scope,id,metric,value, so runs over any number
+ * of inputs, resources and tasks share the same columns
+ */
+public class MetricsExporter
+{
+    // Manager names, indexed by version
+    private static final String[] MANAGER_NAMES = {"FIFO", "BANKER'S"};
+
+    // The percentiles of each time to grant histogram that are exported
+    private static final int[] PERCENTILES = {50, 90, 99};
+
+    /**
+     * Writes out the metrics of every run
+     * @param filePath The file to be written
+     * @param inputNames The name of each input, indexing the first dimension of results
+     * @param results Each input's results in manager order, a null row for an input that failed
+     * @throws InvalidInputException If the file cannot be written
+     */
+    public static void write(String filePath, String[] inputNames, SimulationResult[][] results)
+            throws InvalidInputException
+    {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(Paths.get(filePath))))
+        {
+            if (filePath.endsWith(".json"))
+                writeJson(writer, inputNames, results);
+            else
+                writeCsv(writer, inputNames, results);
+        }
+        catch (IOException e)
+        {
+            throw new InvalidInputException("Error: Could not write metrics to " + filePath);
+        }
+    } // End of the write method
+
+    private static void writeCsv(PrintWriter writer, String[] inputNames, SimulationResult[][] results)
+    {
+        writer.println("input,manager,scope,id,metric,value");
+        for (int i = 0; i < results.length; ++i)
+        {
+            if (results[i] == null)
+                continue;
+            for (SimulationResult result : results[i])
+            {
+                SimulationMetrics metrics = result.getMetrics();
+                String prefix = csvField(inputNames[i]) + "," + csvField(MANAGER_NAMES[metrics.getVersion()]) + ",";
+
+                String managerPrefix = prefix + "manager,,";
+                writer.println(managerPrefix + "cycles," + metrics.getNumberOfCycles());
+                writer.println(managerPrefix + "throughput," + formatDouble(metrics.getThroughput()));
+                writer.println(managerPrefix + "grants," + metrics.getNumberOfGrants());
+                writer.println(managerPrefix + "blocked_requests," + metrics.getNumberOfBlockedRequests());
+                writer.println(managerPrefix + "deadlocks," + metrics.getNumberOfDeadlocks());
+                writer.println(managerPrefix + "aborts," + metrics.getNumberOfAborts());
+                writer.println(managerPrefix + "safety_checks," + metrics.getNumberOfSafetyChecks());
+                writer.println(managerPrefix + "safety_checks_run," + metrics.getNumberOfSafetyChecksRun());
+
+                for (int r = 0; r < metrics.getNumberOfResources(); ++r)
+                {
+                    String resourcePrefix = prefix + "resource," + (r + 1) + ",";
+                    Histogram timeToGrant = metrics.getTimeToGrant(r);
+                    writer.println(resourcePrefix + "capacity," + metrics.getResourceCapacity(r));
+                    writer.println(resourcePrefix + "utilisation," + formatDouble(metrics.getUtilisation(r)));
+                    writer.println(resourcePrefix + "peak_units_in_use," + metrics.getPeakUnitsInUse(r));
+                    writer.println(resourcePrefix + "mean_queue_length," +
+                            formatDouble(metrics.getMeanQueueLength(r)));
+                    writer.println(resourcePrefix + "peak_queue_length," + metrics.getPeakQueueLength(r));
+                    writer.println(resourcePrefix + "grants," + timeToGrant.getCount());
+                    writer.println(resourcePrefix + "time_to_grant_mean," + formatDouble(timeToGrant.getMean()));
+                    for (int percentile : PERCENTILES)
+                        writer.println(resourcePrefix + "time_to_grant_p" + percentile + "," +
+                                timeToGrant.getPercentile(percentile));
+                    writer.println(resourcePrefix + "time_to_grant_max," + timeToGrant.getMaximum());
+                }
+
+                for (int t = 0; t < metrics.getNumberOfTasks(); ++t)
+                {
+                    String taskPrefix = prefix + "task," + (t + 1) + ",";
+                    writer.println(taskPrefix + "aborted," + metrics.isTaskAborted(t));
+                    if (metrics.isTaskAborted(t))
+                        continue;
+                    writer.println(taskPrefix + "turnaround," + metrics.getTaskTurnaroundTime(t));
+                    writer.println(taskPrefix + "wait," + metrics.getTaskWaitTime(t));
+                }
+            }
+        }
+    } // End of the write CSV method
+
+    private static void writeJson(PrintWriter writer, String[] inputNames, SimulationResult[][] results)
+    {
+        writer.println("{\"runs\": [");
+        boolean isFirstRun = true;
+        for (int i = 0; i < results.length; ++i)
+        {
+            if (results[i] == null)
+                continue;
+            for (SimulationResult result : results[i])
+            {
+                SimulationMetrics metrics = result.getMetrics();
+                if (!isFirstRun)
+                    writer.println(",");
+                isFirstRun = false;
+
+                writer.print("  {\"input\": " + jsonString(inputNames[i]) +
+                        ", \"manager\": " + jsonString(MANAGER_NAMES[metrics.getVersion()]) +
+                        ", \"cycles\": " + metrics.getNumberOfCycles() +
+                        ", \"throughput\": " + formatDouble(metrics.getThroughput()) +
+                        ", \"grants\": " + metrics.getNumberOfGrants() +
+                        ", \"blockedRequests\": " + metrics.getNumberOfBlockedRequests() +
+                        ", \"deadlocks\": " + metrics.getNumberOfDeadlocks() +
+                        ", \"aborts\": " + metrics.getNumberOfAborts() +
+                        ", \"safetyChecks\": " + metrics.getNumberOfSafetyChecks() +
+                        ", \"safetyChecksRun\": " + metrics.getNumberOfSafetyChecksRun() +
+                        ",\n   \"resources\": [");
+                for (int r = 0; r < metrics.getNumberOfResources(); ++r)
+                {
+                    Histogram timeToGrant = metrics.getTimeToGrant(r);
+                    writer.print(((r == 0) ? "\n" : ",\n") + "    {\"id\": " + (r + 1) +
+                            ", \"capacity\": " + metrics.getResourceCapacity(r) +
+                            ", \"utilisation\": " + formatDouble(metrics.getUtilisation(r)) +
+                            ", \"peakUnitsInUse\": " + metrics.getPeakUnitsInUse(r) +
+                            ", \"meanQueueLength\": " + formatDouble(metrics.getMeanQueueLength(r)) +
+                            ", \"peakQueueLength\": " + metrics.getPeakQueueLength(r) +
+                            ", \"timeToGrant\": {\"count\": " + timeToGrant.getCount() +
+                            ", \"mean\": " + formatDouble(timeToGrant.getMean()));
+                    for (int percentile : PERCENTILES)
+                        writer.print(", \"p" + percentile + "\": " + timeToGrant.getPercentile(percentile));
+                    writer.print(", \"max\": " + timeToGrant.getMaximum() + ", \"buckets\": [");
+                    writeBuckets(writer, timeToGrant);
+                    writer.print("]}}");
+                }
+                writer.print("],\n   \"tasks\": [");
+                for (int t = 0; t < metrics.getNumberOfTasks(); ++t)
+                {
+                    writer.print(((t == 0) ? "\n" : ",\n") + "    {\"id\": " + (t + 1) +
+                            ", \"aborted\": " + metrics.isTaskAborted(t));
+                    if (!metrics.isTaskAborted(t))
+                        writer.print(", \"turnaround\": " + metrics.getTaskTurnaroundTime(t) +
+                                ", \"wait\": " + metrics.getTaskWaitTime(t));
+                    writer.print("}");
+                }
+                writer.print("]}");
+            }
+        }
+        writer.println("\n]}");
+    } // End of the write JSON method
+
+    /**
+     * Writes the non-empty buckets of a histogram as objects holding the top of each bucket and its count
+     */
+    private static void writeBuckets(PrintWriter writer, Histogram histogram)
+    {
+        boolean isFirstBucket = true;
+        for (int bucket = 0; bucket < Histogram.NUMBER_OF_BUCKETS; ++bucket)
+        {
+            if (histogram.getBucketCount(bucket) == 0)
+                continue;
+            if (!isFirstBucket)
+                writer.print(", ");
+            isFirstBucket = false;
+            writer.print("{\"upTo\": " + Histogram.getBucketUpperBound(bucket) + ", \"count\": " +
+                    histogram.getBucketCount(bucket) + "}");
+        }
+    } // End of the write buckets method
+
+    private static String formatDouble(double value)
+    {
+        return String.format(Locale.ROOT, "%.6f", value);
+    } // End of the format double method
+
+    private static String csvField(String value)
+    {
+        if ((value.indexOf(',') < 0) && (value.indexOf('"') < 0) && (value.indexOf('\n') < 0))
+            return value;
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    } // End of the CSV field method
+
+    private static String jsonString(String value)
+    {
+        StringBuilder escaped = new StringBuilder("\"");
+        for (char character : value.toCharArray())
+        {
+            if ((character == '"') || (character == '\\'))
+                escaped.append('\\').append(character);
+            else if (character < 0x20)
+                escaped.append(String.format("\\u%04x", (int) character));
+            else
+                escaped.append(character);
+        }
+        return escaped.append('"').toString();
+    } // End of the JSON string method
+} // End of the metrics exporter class
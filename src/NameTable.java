@@ -0,0 +1,60 @@
+/**
+ * Name table object class, the commandline names of a set of int constants indexed from 0, such as the trace levels
+ * or the victim and grant policies
+ */
+public class NameTable
+{
+    // Table attributes
+    private String kind; // What the names are of, as it appears in error messages
+    private String[] names; // Indexed by constant
+    private String otherName; // A name the caller handles itself, or null if there is none
+
+    /**
+     * Name table object constructor
+     * @param kind What the names are of, such as "trace level"
+     * @param names Each constant's name, indexed by constant
+     */
+    public NameTable(String kind, String... names)
+    {
+        this(kind, names, null);
+    } // End of the name table constructor
+
+    /**
+     * Name table object constructor, for a table with a further name that the caller checks for before reading from
+     * the table, which is listed along with the others when a name is not found
+     * @param kind What the names are of, such as "grant policy"
+     * @param names Each constant's name, indexed by constant
+     * @param otherName The further name
+     */
+    public NameTable(String kind, String[] names, String otherName)
+    {
+        this.kind = kind;
+        this.otherName = otherName;
+        this.names = names;
+    } // End of the name table with other name constructor
+
+    public int size() {
+        return names.length;
+    }
+
+    public String getName(int constant) {
+        return names[constant];
+    }
+
+    /**
+     * Reads a constant from its name
+     * @param name The constant's name, as given on the commandline
+     * @return The constant
+     * @throws InvalidInputException If there is no constant with that name
+     */
+    public int fromName(String name) throws InvalidInputException
+    {
+        for (int constant = 0; constant < names.length; ++constant)
+        {
+            if (names[constant].equals(name))
+                return constant;
+        }
+        throw new InvalidInputException("Error: Unknown " + kind + " '" + name + "', expected one of " +
+                String.join(", ", names) + ((otherName == null) ? "" : " or " + otherName));
+    } // End of the from name method
+} // End of the name table class
@@ -0,0 +1,143 @@
+import java.util.Arrays;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Parallel safety check class, one round of the banker's need-sorted safety sweep split across a fork-join pool by
+ * resource. Each resource first adds to Work what the tasks finished last round hold of it, then moves its cursor
+ * past every task whose need of it is now covered, counting that task as satisfied on one more resource. The
+ * resource that satisfies a task's last resource hands it back as finished. Every cursor only moves forward and every
+ * finished task's allocation is added once, so the rounds together do the same O(T * R) work as the sequential sweep
+ * and reach the same verdict, only split across cores
+ */
+public class ParallelSafetyCheck extends RecursiveTask<int[]>
+{
+    // Ranges at or below this many resources are swept directly rather than split further
+    private static final int RESOURCES_PER_LEAF = 2;
+
+    // On a single core the parallel sweep takes about twice as long as the sequential one, for its atomic counts and
+    // a fork-join round per wave of finished tasks, so it needs several cores with a leaf of resources each to win
+    public static final int MINIMUM_PROCESSORS = 4;
+
+    // Smallest Need matrix, in cells, worth splitting, a sequential check this size takes a couple of milliseconds so
+    // the per-round cost of the fork-join pool is small next to it
+    public static final long MINIMUM_CELLS = 1L << 18;
+
+    // Fork/join tasks are serializable, though they are never serialized here
+    private static final long serialVersionUID = 1L;
+
+    // Round attributes, shared by every split of the same round. Each leaf only writes its own resources' entries of
+    // work and cursor, and satisfiedCount is counted up atomically
+    private int numberOfTasks;
+    private int numberOfResources;
+    private int[] need;
+    private int[] allocation;
+    private int[] needOrder;
+    private int[] work;
+    private int[] cursor;
+    private AtomicIntegerArray satisfiedCount;
+    private int[] finishQueue;
+    private int finishedStart;
+    private int finishedEnd;
+    private int start;
+    private int end;
+
+    /**
+     * Parallel safety check constructor, covering the resources in [start, end)
+     * @param numberOfTasks The number of tasks
+     * @param numberOfResources The number of resource types
+     * @param need The Need matrix, indexed by [taskID * numberOfResources + resourceID]
+     * @param allocation The Allocation matrix, indexed the same way
+     * @param needOrder Each resource's tasks sorted by need, indexed by [resourceID * numberOfTasks + rank]
+     * @param work What would be free before last round's tasks are added, indexed by resource ID
+     * @param cursor How far each resource's sweep has got through its need order
+     * @param satisfiedCount How many resources each task's need is covered on
+     * @param finishQueue Every task found able to finish so far, in the order found
+     * @param finishedStart The first task of finishQueue finished in the last round
+     * @param finishedEnd One past the last task of finishQueue finished in the last round
+     */
+    public ParallelSafetyCheck(int numberOfTasks, int numberOfResources, int[] need, int[] allocation, int[] needOrder,
+                               int[] work, int[] cursor, AtomicIntegerArray satisfiedCount, int[] finishQueue,
+                               int finishedStart, int finishedEnd, int start, int end)
+    {
+        this.numberOfTasks = numberOfTasks;
+        this.numberOfResources = numberOfResources;
+        this.need = need;
+        this.allocation = allocation;
+        this.needOrder = needOrder;
+        this.work = work;
+        this.cursor = cursor;
+        this.satisfiedCount = satisfiedCount;
+        this.finishQueue = finishQueue;
+        this.finishedStart = finishedStart;
+        this.finishedEnd = finishedEnd;
+        this.start = start;
+        this.end = end;
+    } // End of the parallel safety check constructor
+
+    /**
+     * Checks whether a state is big enough for the parallel check to beat the sequential one, which needs at least
+     * MINIMUM_PROCESSORS cores, a leaf of resources for each of them and at least MINIMUM_CELLS of Need to share out
+     * @param numberOfTasks The number of tasks
+     * @param numberOfResources The number of resource types
+     * @return true if the parallel check is worth using
+     */
+    public static boolean isWorthSplitting(int numberOfTasks, int numberOfResources)
+    {
+        return (Runtime.getRuntime().availableProcessors() >= MINIMUM_PROCESSORS)
+                && (numberOfResources >= MINIMUM_PROCESSORS * RESOURCES_PER_LEAF)
+                && ((long) numberOfTasks * numberOfResources >= MINIMUM_CELLS);
+    } // End of the is worth splitting method
+
+    /**
+     * Sweeps its resources for a single round
+     * @return The tasks finished in this round, in no particular order
+     */
+    @Override
+    protected int[] compute()
+    {
+        if (end - start <= RESOURCES_PER_LEAF)
+            return sweepResources();
+
+        int middle = (start + end) >>> 1;
+        ParallelSafetyCheck lowerHalf = new ParallelSafetyCheck(numberOfTasks, numberOfResources, need, allocation,
+                needOrder, work, cursor, satisfiedCount, finishQueue, finishedStart, finishedEnd, start, middle);
+        ParallelSafetyCheck upperHalf = new ParallelSafetyCheck(numberOfTasks, numberOfResources, need, allocation,
+                needOrder, work, cursor, satisfiedCount, finishQueue, finishedStart, finishedEnd, middle, end);
+        lowerHalf.fork();
+        int[] upperFinished = upperHalf.compute();
+        int[] lowerFinished = lowerHalf.join();
+        int[] finished = Arrays.copyOf(lowerFinished, lowerFinished.length + upperFinished.length);
+        System.arraycopy(upperFinished, 0, finished, lowerFinished.length, upperFinished.length);
+        return finished;
+    } // End of the compute method
+
+    /**
+     * Adds last round's finished tasks to Work and advances the cursor of each resource in the range
+     */
+    private int[] sweepResources()
+    {
+        int[] finished = new int[0];
+        int numberOfFinished = 0;
+        for (int r = start; r < end; ++r)
+        {
+            for (int i = finishedStart; i < finishedEnd; ++i)
+                work[r] += allocation[finishQueue[i] * numberOfResources + r];
+
+            int base = r * numberOfTasks;
+            while (cursor[r] < numberOfTasks)
+            {
+                int taskID = needOrder[base + cursor[r]];
+                if (need[taskID * numberOfResources + r] > work[r])
+                    break;
+                ++cursor[r];
+                if (satisfiedCount.incrementAndGet(taskID) != numberOfResources)
+                    continue;
+                if (numberOfFinished == finished.length)
+                    finished = Arrays.copyOf(finished, Math.max(8, 2 * numberOfFinished));
+                finished[numberOfFinished++] = taskID;
+            }
+        }
+        return Arrays.copyOf(finished, numberOfFinished);
+    } // End of the sweep resources method
+} // End of the parallel safety check class
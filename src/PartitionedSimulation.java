@@ -0,0 +1,378 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Partitioned simulation object class, splitting a program's resources into independent pools and running each
+ * pool's managers on their own threads. Every pool that some task uses is a partition of its own, holding the tasks
+ * that use it, so partitions only stay independent while no task uses resources from more than one pool. A map that
+ * a task spans is refused rather than having its pools merged, as that would quietly put them back on one thread.
+ * Each partition's managers run it as they would a program of its own, so a pool left unsafe by its claims no longer
+ * holds back grants in the others. Each task's outcome is then merged back into a single table per manager, numbered
+ * as in the input
+ */
+public class PartitionedSimulation
+{
+    // Partition attributes
+    private StepProgram program;
+    private int numberOfPools;
+    private int numberOfSpanningTasks;
+    private int firstSpanningTask; // -1 if no task spans more than one pool
+    private int[] partitionOfEachPool; // -1 for pools no task uses
+    private StepProgram[] partitionPrograms;
+    private int[][] globalTaskIDs; // [partition][local task ID]
+
+    /**
+     * Partitioned simulation object constructor, building a program for each partition unless a task spans more than
+     * one pool, see isIndependent
+     * @param program The parsed input
+     * @param poolOfEachResource Each resource's pool, indexed by resource ID, as read by readPartitionMap
+     */
+    public PartitionedSimulation(StepProgram program, int[] poolOfEachResource)
+    {
+        this.program = program;
+        this.numberOfPools = 0;
+        for (int pool : poolOfEachResource)
+            numberOfPools = Math.max(numberOfPools, pool + 1);
+
+        int[] partitionOfEachTask = assignTasks(poolOfEachResource);
+        if (isIndependent())
+            buildPartitionPrograms(poolOfEachResource, partitionOfEachTask);
+    } // End of the partitioned simulation constructor
+
+    public int getNumberOfPools() {
+        return numberOfPools;
+    }
+
+    public int getNumberOfPartitions() {
+        return partitionPrograms.length;
+    }
+
+    public int getNumberOfSpanningTasks() {
+        return numberOfSpanningTasks;
+    }
+
+    public int getFirstSpanningTask() {
+        return firstSpanningTask;
+    }
+
+    public boolean isIndependent() {
+        return numberOfSpanningTasks == 0;
+    }
+
+    /**
+     * Reads a partition map, each non-empty line listing the resources of one pool counted from 1 as in the input,
+     * separated by spaces or commas. Every resource left out of the map is a pool of its own
+     * @param filePath The partition map file path, given as a String
+     * @param numberOfResources The number of resources in the program being partitioned
+     * @return Each resource's pool, indexed by resource ID
+     * @throws InvalidInputException If the map cannot be read, or lists a resource that does not exist or twice
+     */
+    public static int[] readPartitionMap(String filePath, int numberOfResources) throws InvalidInputException
+    {
+        List<String> lines;
+        try
+        {
+            lines = Files.readAllLines(Paths.get(filePath), StandardCharsets.UTF_8);
+        }
+        catch (IOException e)
+        {
+            throw new InvalidInputException("Error: Could not read the partition map " + filePath);
+        }
+
+        int[] poolOfEachResource = new int[numberOfResources];
+        Arrays.fill(poolOfEachResource, -1);
+        int numberOfPools = 0;
+        for (int lineNumber = 1; lineNumber <= lines.size(); ++lineNumber)
+        {
+            String line = lines.get(lineNumber - 1).trim();
+            if (line.isEmpty())
+                continue;
+
+            for (String token : line.split("[\\s,]+"))
+            {
+                int resourceNumber;
+                try
+                {
+                    resourceNumber = Integer.parseInt(token);
+                }
+                catch (NumberFormatException e)
+                {
+                    throw new InvalidInputException("Error: Line " + lineNumber + " of the partition map " +
+                            filePath + " has " + token + " where a resource was expected");
+                }
+                if ((resourceNumber < 1) || (resourceNumber > numberOfResources))
+                    throw new InvalidInputException("Error: Line " + lineNumber + " of the partition map " +
+                            filePath + " references resource " + resourceNumber + " which does not exist");
+                if (poolOfEachResource[resourceNumber - 1] != -1)
+                    throw new InvalidInputException("Error: Line " + lineNumber + " of the partition map " +
+                            filePath + " lists resource " + resourceNumber + " which is already in a pool");
+                poolOfEachResource[resourceNumber - 1] = numberOfPools;
+            }
+            ++numberOfPools;
+        }
+
+        // Resources left out of the map are pools of their own
+        for (int resourceID = 0; resourceID < numberOfResources; ++resourceID)
+        {
+            if (poolOfEachResource[resourceID] == -1)
+                poolOfEachResource[resourceID] = numberOfPools++;
+        }
+        return poolOfEachResource;
+    } // End of the read partition map method
+
+    /***** Application Methods *****/
+    /**
+     * [Application Method] Runs both managers over every partition on a fixed pool of threads, then merges each
+     * manager's partitions into a single output table
+     * @param options The victim and grant policies and safety check mode every engine runs with, partitions print no
+     *                trace
+     * @return Both managers' merged results, ORM first
+     * @throws InvalidInputException If a task spans more than one pool, or any partition's manager fails
+     */
+    public ArrayList<SimulationResult> simulate(SimulationOptions options) throws InvalidInputException
+    {
+        if (!isIndependent())
+            throw new InvalidInputException("Error: Task " + (firstSpanningTask + 1) + " uses resources from more " +
+                    "than one pool, so the pools cannot be simulated independently");
+
+        SimulationOptions partitionOptions = new SimulationOptions(TraceLevel.OFF, options.getVictimPolicy(),
+                options.isParallelSafetyCheck(), null, null);
+        partitionOptions.setGrantPolicy(options.getGrantPolicy());
+        int numberOfJobs = partitionPrograms.length * SimulateResourceManagers.NUMBER_OF_MANAGERS;
+        ExecutorService partitionPool = Executors.newFixedThreadPool(
+                Math.max(1, Math.min(numberOfJobs, Runtime.getRuntime().availableProcessors())));
+        try
+        {
+            // Submits every partition's managers, [partition][version]
+            ArrayList<ArrayList<Future<SimulationMetrics>>> partitionOutputs = new ArrayList<>();
+            for (StepProgram partitionProgram : partitionPrograms)
+            {
+                ArrayList<Future<SimulationMetrics>> managerOutputs = new ArrayList<>();
+                for (int version = 0; version < SimulateResourceManagers.NUMBER_OF_MANAGERS; ++version)
+                {
+                    int managerVersion = version;
+                    managerOutputs.add(partitionPool.submit(() -> simulatePartition(partitionProgram,
+                            managerVersion, partitionOptions)));
+                }
+                partitionOutputs.add(managerOutputs);
+            }
+
+            // Merges each manager's task outcomes back into input order
+            ArrayList<SimulationResult> results = new ArrayList<>();
+            for (int version = 0; version < SimulateResourceManagers.NUMBER_OF_MANAGERS; ++version)
+            {
+                boolean[] isTaskAborted = new boolean[program.getNumberOfTasks()];
+                int[] turnaroundTimes = new int[program.getNumberOfTasks()];
+                int[] waitTimes = new int[program.getNumberOfTasks()];
+                for (int partition = 0; partition < partitionPrograms.length; ++partition)
+                {
+                    SimulationMetrics metrics = partitionOutputs.get(partition).get(version).get();
+                    for (int localTaskID = 0; localTaskID < globalTaskIDs[partition].length; ++localTaskID)
+                    {
+                        int taskID = globalTaskIDs[partition][localTaskID];
+                        isTaskAborted[taskID] = metrics.isTaskAborted(localTaskID);
+                        turnaroundTimes[taskID] = metrics.getTaskTurnaroundTime(localTaskID);
+                        waitTimes[taskID] = metrics.getTaskWaitTime(localTaskID);
+                    }
+                }
+
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                PrintStream out = new PrintStream(buffer);
+                SimulationResult result = SimulationEngine.printOutputTable(out, version, isTaskAborted,
+                        turnaroundTimes, waitTimes);
+                out.flush();
+                result.setOutput(buffer.toString());
+                results.add(result);
+            }
+            return results;
+        }
+        catch (ExecutionException e)
+        {
+            if (e.getCause() instanceof InvalidInputException)
+                throw (InvalidInputException) e.getCause();
+            throw new InvalidInputException("Error: A partition failed during simulation: " + e.getCause());
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InvalidInputException("Error: Interrupted while waiting for the partitions to finish");
+        }
+        finally
+        {
+            partitionPool.shutdown();
+        }
+    } // End of the simulate method
+
+    /**
+     * [Application Method] Runs a single manager over a single partition, keeping only each task's outcome
+     * @return The run's metrics, holding each task's outcome by local task ID
+     */
+    private static SimulationMetrics simulatePartition(StepProgram partitionProgram, int version,
+                                                       SimulationOptions partitionOptions)
+            throws InvalidInputException
+    {
+        SimulationEngine engine = new SimulationEngine(partitionProgram,
+                new PrintStream(OutputStream.nullOutputStream()), partitionOptions);
+        engine.setCollectingMetrics(true);
+        return engine.simulationWrapper(version).getMetrics();
+    } // End of the simulate partition method
+
+    /***** Helper Methods *****/
+
+    /**
+     * [Helper Method] Gives every task the partition of the pool it uses, counting the tasks that use more than one.
+     * Tasks that reference no resource go to the pool of the first resource
+     * @return Each task's partition, indexed by task ID, partitions are numbered in order of their lowest resource
+     */
+    private int[] assignTasks(int[] poolOfEachResource)
+    {
+        // Finds the first pool each task uses, and whether it goes on to use another
+        int[] poolOfEachTask = new int[program.getNumberOfTasks()];
+        boolean[] isSpanningTask = new boolean[program.getNumberOfTasks()];
+        Arrays.fill(poolOfEachTask, -1);
+        firstSpanningTask = -1;
+        for (int stepID = 0; stepID < program.getNumberOfSteps(); ++stepID)
+        {
+            if (!referencesResource(stepID))
+                continue;
+            int taskID = program.getReferencedTaskID(stepID);
+            int pool = poolOfEachResource[program.getReferencedResource(stepID)];
+            if (poolOfEachTask[taskID] == -1)
+                poolOfEachTask[taskID] = pool;
+            else if ((poolOfEachTask[taskID] != pool) && (!isSpanningTask[taskID]))
+            {
+                isSpanningTask[taskID] = true;
+                ++numberOfSpanningTasks;
+                if ((firstSpanningTask == -1) || (taskID < firstSpanningTask))
+                    firstSpanningTask = taskID;
+            }
+        }
+
+        // Numbers the pools that have tasks in order of their lowest resource
+        boolean[] isPoolUsed = new boolean[numberOfPools];
+        for (int taskID = 0; taskID < program.getNumberOfTasks(); ++taskID)
+        {
+            if (poolOfEachTask[taskID] == -1)
+                poolOfEachTask[taskID] = poolOfEachResource[0];
+            isPoolUsed[poolOfEachTask[taskID]] = true;
+        }
+        partitionOfEachPool = new int[numberOfPools];
+        Arrays.fill(partitionOfEachPool, -1);
+        int numberOfPartitions = 0;
+        for (int pool : poolOfEachResource)
+        {
+            if ((isPoolUsed[pool]) && (partitionOfEachPool[pool] == -1))
+                partitionOfEachPool[pool] = numberOfPartitions++;
+        }
+
+        int[] partitionOfEachTask = new int[program.getNumberOfTasks()];
+        for (int taskID = 0; taskID < program.getNumberOfTasks(); ++taskID)
+            partitionOfEachTask[taskID] = partitionOfEachPool[poolOfEachTask[taskID]];
+        partitionPrograms = new StepProgram[numberOfPartitions];
+        return partitionOfEachTask;
+    } // End of the assign tasks method
+
+    /**
+     * [Helper Method] Builds each partition's program from its tasks' steps, in input order. Tasks and resources are
+     * renumbered in ascending order, so a partition's managers see them in the same order as the whole program's
+     */
+    private void buildPartitionPrograms(int[] poolOfEachResource, int[] partitionOfEachTask)
+    {
+        int numberOfPartitions = partitionPrograms.length;
+        int numberOfTasks = program.getNumberOfTasks();
+        int numberOfResources = program.getNumberOfResources();
+
+        // Each partition's resources are those of its pool
+        int[] partitionOfEachResource = new int[numberOfResources];
+        for (int resourceID = 0; resourceID < numberOfResources; ++resourceID)
+            partitionOfEachResource[resourceID] = partitionOfEachPool[poolOfEachResource[resourceID]];
+
+        // Renumbers tasks and resources within their partition
+        int[] localTaskIDs = new int[numberOfTasks];
+        int[] taskCounts = new int[numberOfPartitions];
+        for (int taskID = 0; taskID < numberOfTasks; ++taskID)
+            localTaskIDs[taskID] = taskCounts[partitionOfEachTask[taskID]]++;
+        globalTaskIDs = new int[numberOfPartitions][];
+        for (int partition = 0; partition < numberOfPartitions; ++partition)
+            globalTaskIDs[partition] = new int[taskCounts[partition]];
+        for (int taskID = 0; taskID < numberOfTasks; ++taskID)
+            globalTaskIDs[partitionOfEachTask[taskID]][localTaskIDs[taskID]] = taskID;
+
+        int[] localResourceIDs = new int[numberOfResources];
+        int[] resourceCounts = new int[numberOfPartitions];
+        for (int resourceID = 0; resourceID < numberOfResources; ++resourceID)
+        {
+            if (partitionOfEachResource[resourceID] != -1)
+                localResourceIDs[resourceID] = resourceCounts[partitionOfEachResource[resourceID]]++;
+        }
+        int[][] resourceTotals = new int[numberOfPartitions][];
+        for (int partition = 0; partition < numberOfPartitions; ++partition)
+            resourceTotals[partition] = new int[resourceCounts[partition]];
+        for (int resourceID = 0; resourceID < numberOfResources; ++resourceID)
+        {
+            int partition = partitionOfEachResource[resourceID];
+            if (partition != -1)
+                resourceTotals[partition][localResourceIDs[resourceID]] = program.getResourceTotal(resourceID);
+        }
+
+        // Copies each step into its task's partition
+        int[] stepCounts = new int[numberOfPartitions];
+        for (int stepID = 0; stepID < program.getNumberOfSteps(); ++stepID)
+            ++stepCounts[partitionOfEachTask[program.getReferencedTaskID(stepID)]];
+        byte[][] stepTypes = new byte[numberOfPartitions][];
+        int[][] groups = new int[numberOfPartitions][];
+        int[][] referencedTasks = new int[numberOfPartitions][];
+        int[][] referencedResources = new int[numberOfPartitions][];
+        int[][] amounts = new int[numberOfPartitions][];
+        for (int partition = 0; partition < numberOfPartitions; ++partition)
+        {
+            stepTypes[partition] = new byte[stepCounts[partition]];
+            groups[partition] = new int[stepCounts[partition]];
+            referencedTasks[partition] = new int[stepCounts[partition]];
+            referencedResources[partition] = new int[stepCounts[partition]];
+            amounts[partition] = new int[stepCounts[partition]];
+        }
+
+        Arrays.fill(stepCounts, 0);
+        for (int stepID = 0; stepID < program.getNumberOfSteps(); ++stepID)
+        {
+            int taskID = program.getReferencedTaskID(stepID);
+            int partition = partitionOfEachTask[taskID];
+            int localStepID = stepCounts[partition]++;
+            stepTypes[partition][localStepID] = (byte) program.getStepType(stepID);
+            groups[partition][localStepID] = program.getGroup(stepID);
+            referencedTasks[partition][localStepID] = localTaskIDs[taskID];
+            referencedResources[partition][localStepID] = referencesResource(stepID)
+                    ? localResourceIDs[program.getReferencedResource(stepID)] : program.getReferencedResource(stepID);
+            amounts[partition][localStepID] = program.getNumberOfResourcesUtilised(stepID);
+        }
+
+        for (int partition = 0; partition < numberOfPartitions; ++partition)
+            partitionPrograms[partition] = new StepProgram(taskCounts[partition], resourceTotals[partition],
+                    stepCounts[partition], stepTypes[partition], groups[partition], referencedTasks[partition],
+                    referencedResources[partition], amounts[partition], program.getNumberOfGroups(),
+                    program.isSequentialTask());
+    } // End of the build partition programs method
+
+    /**
+     * [Helper Method] Checks whether a step's resource column holds a resource ID, compute and terminate keep their
+     * raw value there instead
+     */
+    private boolean referencesResource(int stepID)
+    {
+        int stepType = program.getStepType(stepID);
+        return (stepType != 2) && (stepType != 4);
+    } // End of the references resource method
+} // End of the partitioned simulation class
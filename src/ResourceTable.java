@@ -0,0 +1,243 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Resource table object class, every resource type's units and holders for the opportunistic manager. Units are
+ * kept in primitive arrays indexed by resource ID, each resource's holders in a bitset indexed by task ID, and each
+ * task's held resources in a list of its own, so releasing everything a task holds only touches what it holds. A
+ * waiting request can only be granted once units of its resource are freed, so a summary bitmap marks the resources
+ * with units waiting to be freed, and the start of each cycle skips straight to them
+ */
+public class ResourceTable
+{
+    // Table attributes
+    private ArrayList<Task> taskContainer;
+    private int numberOfResources;
+    private int[] totals; // Indexed by resource ID
+    private int[] available; // Indexed by resource ID
+    private int[] toBeFreed; // Units released this cycle, available from the next, indexed by resource ID
+
+    // Each resource's holders, a bitset of task IDs sliced by holderWordsPerResource
+    private int holderWordsPerResource;
+    private long[] holders;
+
+    // Each task's held resources in the order they were first taken, indexed by task ID
+    private int[][] heldResources;
+    private int[] numberOfHeldResources;
+
+    // Summary bitmap, indexed by resource ID
+    private long[] hasUnitsToBeFreed;
+
+    /**
+     * Resource table object constructor, every unit starts free and nothing is held
+     * @param taskContainer Every task, indexed by task ID
+     * @param totals The total units of each resource type
+     */
+    public ResourceTable(ArrayList<Task> taskContainer, int[] totals)
+    {
+        this.taskContainer = taskContainer;
+        this.numberOfResources = totals.length;
+        this.totals = totals.clone();
+        this.available = totals.clone();
+        this.toBeFreed = new int[numberOfResources];
+        this.holderWordsPerResource = (taskContainer.size() + 63) >>> 6;
+        this.holders = new long[numberOfResources * holderWordsPerResource];
+        this.heldResources = new int[taskContainer.size()][];
+        for (int taskID = 0; taskID < heldResources.length; ++taskID)
+            heldResources[taskID] = new int[Math.min(4, numberOfResources)];
+        this.numberOfHeldResources = new int[taskContainer.size()];
+        this.hasUnitsToBeFreed = new long[(numberOfResources + 63) >>> 6];
+    } // End of the resource table constructor
+
+    public int getNumberOfResources() {
+        return numberOfResources;
+    }
+
+    public int getTotal(int resourceID) {
+        return totals[resourceID];
+    }
+
+    public int getAvailable(int resourceID) {
+        return available[resourceID];
+    }
+
+    public int getUnitsToBeFreed(int resourceID) {
+        return toBeFreed[resourceID];
+    }
+
+    public int[] getTotals() {
+        return totals;
+    }
+
+    /**
+     * Grants units of a resource to a task, if there are enough free
+     * @return true if the units were granted
+     */
+    public boolean tryAllocate(Task task, int resourceID, int amount)
+    {
+        if (amount > available[resourceID])
+            return false;
+
+        available[resourceID] -= amount;
+        int[] resourcesInUse = task.getResourcesInUse();
+        if ((resourcesInUse[resourceID] == 0) && (amount > 0))
+            addHolder(task.getTaskID(), resourceID);
+        resourcesInUse[resourceID] += amount;
+        return true;
+    } // End of the try allocate method
+
+    /**
+     * Takes units back from a task, they are free from the start of the next cycle
+     */
+    public void release(Task task, int resourceID, int amount)
+    {
+        int[] resourcesInUse = task.getResourcesInUse();
+        resourcesInUse[resourceID] -= amount;
+        toBeFreed[resourceID] += amount;
+        if ((resourcesInUse[resourceID] == 0) && (amount > 0))
+            removeHolder(task.getTaskID(), resourceID);
+        markToBeFreed(resourceID);
+    } // End of the release method
+
+    /**
+     * Takes back everything a task holds, touching only the resources it holds
+     * @return The number of resources that were held
+     */
+    public int releaseAll(Task task)
+    {
+        int taskID = task.getTaskID();
+        int[] resourcesInUse = task.getResourcesInUse();
+        int numberReleased = numberOfHeldResources[taskID];
+        for (int i = 0; i < numberReleased; ++i)
+        {
+            int resourceID = heldResources[taskID][i];
+            toBeFreed[resourceID] += resourcesInUse[resourceID];
+            resourcesInUse[resourceID] = 0;
+            holders[resourceID * holderWordsPerResource + (taskID >>> 6)] &= ~(1L << taskID);
+            markToBeFreed(resourceID);
+        }
+        numberOfHeldResources[taskID] = 0;
+        return numberReleased;
+    } // End of the release all method
+
+    /**
+     * Lists the resources a task holds in the order it first took them, only valid until the task's holdings change
+     * @return The held resource IDs, the first getNumberOfHeldResources(task) of them are valid
+     */
+    public int[] getHeldResources(Task task) {
+        return heldResources[task.getTaskID()];
+    }
+
+    public int getNumberOfHeldResources(Task task) {
+        return numberOfHeldResources[task.getTaskID()];
+    }
+
+    /**
+     * Makes the units released last cycle free
+     * @param resourceID The resource to free
+     * @return The number of units freed
+     */
+    public int freeUnitsToBeFreed(int resourceID)
+    {
+        int amountFreed = toBeFreed[resourceID];
+        available[resourceID] += amountFreed;
+        toBeFreed[resourceID] = 0;
+        hasUnitsToBeFreed[resourceID >>> 6] &= ~(1L << resourceID);
+        return amountFreed;
+    } // End of the free units to be freed method
+
+    /**
+     * Finds the next resource with units waiting to be freed, the only resources a waiting request could be granted
+     * from next cycle
+     * @param fromResourceID The first resource to look at
+     * @return The resource ID, or -1 if there are no more
+     */
+    public int nextResourceToBeFreed(int fromResourceID)
+    {
+        return nextSetBit(hasUnitsToBeFreed, 0, fromResourceID, numberOfResources);
+    } // End of the next resource to be freed method
+
+    /**
+     * Finds the next task holding units of a resource, in task order
+     * @param resourceID The resource held
+     * @param fromTaskID The first task to look at
+     * @return The task ID, or -1 if there are no more
+     */
+    public int nextHolder(int resourceID, int fromTaskID)
+    {
+        return nextSetBit(holders, resourceID * holderWordsPerResource, fromTaskID, taskContainer.size());
+    } // End of the next holder method
+
+    /**
+     * Puts the table back to a saved state, rebuilding the holders from what each task holds
+     * @param savedAvailable The free units of each resource
+     * @param savedToBeFreed The units of each resource waiting to be freed
+     */
+    public void restore(int[] savedAvailable, int[] savedToBeFreed)
+    {
+        System.arraycopy(savedAvailable, 0, available, 0, numberOfResources);
+        System.arraycopy(savedToBeFreed, 0, toBeFreed, 0, numberOfResources);
+        Arrays.fill(holders, 0);
+        Arrays.fill(numberOfHeldResources, 0);
+        Arrays.fill(hasUnitsToBeFreed, 0);
+        for (Task currentTask : taskContainer)
+        {
+            int[] resourcesInUse = currentTask.getResourcesInUse();
+            for (int resourceID = 0; resourceID < numberOfResources; ++resourceID)
+            {
+                if (resourcesInUse[resourceID] > 0)
+                    addHolder(currentTask.getTaskID(), resourceID);
+            }
+        }
+        for (int resourceID = 0; resourceID < numberOfResources; ++resourceID)
+            markToBeFreed(resourceID);
+    } // End of the restore method
+
+    private void addHolder(int taskID, int resourceID)
+    {
+        holders[resourceID * holderWordsPerResource + (taskID >>> 6)] |= 1L << taskID;
+        if (numberOfHeldResources[taskID] == heldResources[taskID].length)
+            heldResources[taskID] = Arrays.copyOf(heldResources[taskID], 2 * heldResources[taskID].length);
+        heldResources[taskID][numberOfHeldResources[taskID]++] = resourceID;
+    } // End of the add holder method
+
+    private void removeHolder(int taskID, int resourceID)
+    {
+        holders[resourceID * holderWordsPerResource + (taskID >>> 6)] &= ~(1L << taskID);
+        int[] held = heldResources[taskID];
+        int last = --numberOfHeldResources[taskID];
+        for (int i = 0; i <= last; ++i)
+        {
+            if (held[i] != resourceID)
+                continue;
+            System.arraycopy(held, i + 1, held, i, last - i);
+            return;
+        }
+    } // End of the remove holder method
+
+    private void markToBeFreed(int resourceID)
+    {
+        if (toBeFreed[resourceID] > 0)
+            hasUnitsToBeFreed[resourceID >>> 6] |= 1L << resourceID;
+    } // End of the mark to be freed method
+
+    /**
+     * Finds the next set bit of a bitset of the given size, which starts at the given word of the array
+     */
+    private static int nextSetBit(long[] bits, int firstWord, int from, int size)
+    {
+        if (from >= size)
+            return -1;
+        int word = from >>> 6;
+        int numberOfWords = (size + 63) >>> 6;
+        long remaining = bits[firstWord + word] & (-1L << from);
+        while (remaining == 0)
+        {
+            if (++word == numberOfWords)
+                return -1;
+            remaining = bits[firstWord + word];
+        }
+        int bit = (word << 6) + Long.numberOfTrailingZeros(remaining);
+        return (bit < size) ? bit : -1;
+    } // End of the next set bit method
+} // End of the resource table class
@@ -0,0 +1,111 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Safety verdict cache object class, a bounded least recently used map from the hash of a banker's state to whether
+ * that state was safe. Repetitive inputs, and blocked requests retried every cycle against an unchanged state, keep
+ * asking about the same state, so the full safety check only has to run once for each. States are keyed by two
+ * independent 64-bit hashes, which makes a false hit vanishingly unlikely without keeping a copy of every state
+ */
+public class SafetyVerdictCache
+{
+    // Lookup results
+    public static final int UNKNOWN = 0;
+    public static final int SAFE = 1;
+    public static final int UNSAFE = 2;
+
+    // The number of verdicts kept by default
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    // Cache attributes
+    private LinkedHashMap<StateKey, Boolean> verdicts;
+    private long numberOfHits;
+    private long numberOfMisses;
+
+    /**
+     * Safety verdict cache object constructor
+     * @param capacity The number of verdicts kept, the least recently used one is dropped past this
+     */
+    public SafetyVerdictCache(int capacity)
+    {
+        this.verdicts = new LinkedHashMap<StateKey, Boolean>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<StateKey, Boolean> eldest)
+            {
+                return size() > capacity;
+            }
+        };
+    } // End of the safety verdict cache constructor
+
+    public long getNumberOfHits() {
+        return numberOfHits;
+    }
+
+    public long getNumberOfMisses() {
+        return numberOfMisses;
+    }
+
+    public int size() {
+        return verdicts.size();
+    }
+
+    /**
+     * Looks up the verdict for a state, counting a hit or a miss
+     * @param hash The state's first hash
+     * @param check The state's second, independent hash
+     * @return SAFE or UNSAFE if the state has been checked before, UNKNOWN otherwise
+     */
+    public int lookup(long hash, long check)
+    {
+        Boolean isSafe = verdicts.get(new StateKey(hash, check));
+        if (isSafe == null)
+        {
+            ++numberOfMisses;
+            return UNKNOWN;
+        }
+        ++numberOfHits;
+        return isSafe ? SAFE : UNSAFE;
+    } // End of the lookup method
+
+    /**
+     * Records the verdict for a state that has just been checked
+     * @param hash The state's first hash
+     * @param check The state's second, independent hash
+     * @param isSafe Whether the state was safe
+     */
+    public void record(long hash, long check, boolean isSafe)
+    {
+        verdicts.put(new StateKey(hash, check), isSafe);
+    } // End of the record method
+
+    /**
+     * State key class, the pair of hashes a verdict is kept under
+     */
+    private static class StateKey
+    {
+        private final long hash;
+        private final long check;
+
+        private StateKey(long hash, long check)
+        {
+            this.hash = hash;
+            this.check = check;
+        } // End of the state key constructor
+
+        @Override
+        public boolean equals(Object other)
+        {
+            if (!(other instanceof StateKey))
+                return false;
+            StateKey otherKey = (StateKey) other;
+            return (hash == otherKey.hash) && (check == otherKey.check);
+        } // End of the equals method
+
+        @Override
+        public int hashCode()
+        {
+            return Long.hashCode(hash);
+        } // End of the hash code method
+    } // End of the state key class
+} // End of the safety verdict cache class
@@ -1,31 +1,30 @@
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
-import java.io.IOException;
-import java.util.*;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class SimulateResourceManagers
 {
-    // Simulation global variables
-    private static ArrayList<Resource> resourceContainer;
-    private static ArrayList<Task> taskContainer;
-    private static ArrayList<Step> stepContainer;
-    private static int CURRENT_CYCLE_TIME;
-    private static boolean IS_VERBOSE_MODE;
-    private static int NUMBER_OF_GROUPS = 0;
-    private static boolean IS_SEQUENTIAL_TASK;
-    private static boolean DEADLOCK_WAS_DETECTED;
-    private static boolean STEP_SUCCEEDED_IN_DEADLOCK;
-    private static boolean MULTIPLE_DEADLOCK_WAS_DETECTED;
-
-    private static ArrayList<Step> currentStepContainer;
-
-    // Ended tasks containers
-    private static ArrayList<Task> terminatedTasksContainer;
-    private static ArrayList<Task> abortedTasksContainer;
-    private static ArrayList<Step> deadlockedStepsContainer;
-    private static HashMap<Resource, Integer> resourcesToBeFreedAtStartOfCycle;
-
+    // Commandline flags
+    private static int TRACE_LEVEL = TraceLevel.SUMMARY;
+    private static int VICTIM_POLICY = VictimPolicy.LOWEST_ID;
+    private static boolean IS_PARALLEL_SAFETY_CHECK = false;
+    private static String METRICS_PATH = null;
+    private static String EVENT_LOG_PATH = null;
+    private static String PARTITION_MAP_PATH = null;
+    private static String PRIORITY_MAP_PATH = null;
+    private static int GRANT_POLICY = GrantPolicy.FCFS;
+    private static boolean IS_COMPARING_GRANT_POLICIES = false;
+    private static int[][] SWEEP_RANGES = null;
+    private static boolean IS_BATCH_MODE = false;
+
+    // The number of resource managers being compared (0 = ORM, 1 = Banker's)
+    public static final int NUMBER_OF_MANAGERS = 2;
 
     /**
      * Runs the simulation for both the Opportunistic Resource Manager (ORM), and the Banker's Algorithm Resource
@@ -34,1014 +33,366 @@ public class SimulateResourceManagers
      */
     public static void main(String[] args)
     {
-        // Container creation & global variable instantiations
-        resourceContainer = new ArrayList<>();
-        taskContainer = new ArrayList<>();
-        stepContainer = new ArrayList<>();
-        deadlockedStepsContainer = new ArrayList<>();
-        terminatedTasksContainer = new ArrayList<>();
-        currentStepContainer = new ArrayList<>();
-        abortedTasksContainer = new ArrayList<>();
-        resourcesToBeFreedAtStartOfCycle = new HashMap<>();
-
-        CURRENT_CYCLE_TIME = 0;
-        IS_VERBOSE_MODE = false;
-        IS_SEQUENTIAL_TASK = true;
-        DEADLOCK_WAS_DETECTED = false;
-        STEP_SUCCEEDED_IN_DEADLOCK = false;
-        MULTIPLE_DEADLOCK_WAS_DETECTED = false;
-
-        // Fills each container with the respective objects
-        fillAllContainers(args[validateInput(args)]);
-
-        //testAllContainers(); // TODO remove after
-
-        // Runs the simulation, prints the output, and resets it for the next run (0 = ORM, 1 = Banker's)
-        simulationWrapper(0);
-        simulationWrapper(1);
-    } // End of the main method
-
-    /***** Application Methods *****/
-    /**
-     *  [Application Method] Wrapper method to call all simulation rounds
-     * @param version 0 is opportunistic resource manager, 1 is for banker's algorithm
-     */
-    private static void simulationWrapper(int version)
-    {
-        try
+        // Converts text inputs into binary traces instead of simulating
+        if ((args.length > 0) && (args[0].equals("convert")))
         {
-            switch (version)
-            {
-                case 0:
-                    // Opportunistic resource manager
-                    simulateORM();
-                    break;
-                case 1:
-                    // Banker's algorithm resource manager
-                    simulateBankers();
-                    break;
-                default:
-                    throw new InvalidInputException(
-                            "Error: simulation wrapper has called an invalid manager algorithm");
-            }
-            printOutput(version);
-            reset();
+            convertInput(args);
+            return;
         }
-        catch (InvalidInputException e)
-        {
-            System.err.println(e.getMessage());
-            System.exit(1);
-        }
-    } // End of the simulation wrapper method
 
-    /**
-     * [Application Method] Simulates the opportunistic resource manager
-     */
-    private static void simulateORM()
-    {
-        boolean hasAlreadyDealtWithDeadlock = true;
-        while (terminatedTasksContainer.size() + abortedTasksContainer.size() != taskContainer.size())
+        // Writes a synthetic workload instead of simulating
+        if ((args.length > 0) && (args[0].equals("generate")))
         {
-            simulateACycle(false);
-            //testResourceContainer(); //TODO remove after
-
-            while (isDeadlocked())
-            {
-                dealWithDeadlock();
-                testForNewDeadlock();
-            }
-
-            if (DEADLOCK_WAS_DETECTED)
-            {
-                DEADLOCK_WAS_DETECTED = false;
-
-                // Resets the steps back to their prior state
-                for (int i = 0; i < currentStepContainer.size(); ++i)
-                {
-                    Step currentStep = currentStepContainer.get(i);
-                    currentStepContainer.set(i, currentStep.getPreviousStep());
-                }
-                if ((hasAlreadyDealtWithDeadlock) && (MULTIPLE_DEADLOCK_WAS_DETECTED))
-                {
-                    --CURRENT_CYCLE_TIME;
-                    hasAlreadyDealtWithDeadlock = false;
-                }
-            }
-            System.out.println("%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%% Time has increased");
-            ++CURRENT_CYCLE_TIME;
+            generateInput(args);
+            return;
         }
-    } // End of the simulate ORM method
 
-    private static void startOfCycleResourceFreeing()
-    {
-        // Deals with any resources to be freed at the start of the cycle
-        for (Map.Entry<Resource, Integer> entry : resourcesToBeFreedAtStartOfCycle.entrySet())
+        // Scans an event log written by an earlier run instead of simulating
+        if ((args.length > 0) && (args[0].equals("events")))
         {
-            Resource resource = entry.getKey();
-            int amountToBeFreed = entry.getValue();
-
-            resource.setResourcesCurrentlyAvaillable(resource.getResourcesCurrentlyAvaillable() + amountToBeFreed);
-            resourcesToBeFreedAtStartOfCycle.remove(resource);
+            readEventLog(args);
+            return;
         }
-    } // End of the start of cycle resource freeing method
-
-    private static void simulateACycle(boolean isTestCycle)
-    {
-        startOfCycleResourceFreeing();
-
-        // Deals with deadlocked tasks, skipping over them later on
-        System.out.println("The number of deadlocked steps before is: " + deadlockedStepsContainer.size());
-        int deadlockedInitialSize = deadlockedStepsContainer.size();
-        System.out.println("----- Start of dealing with deadlocked task -----");
-        for (int i = 0; i < deadlockedInitialSize; ++i)
-        {
-            Step currentStep = deadlockedStepsContainer.get(i);
-            sequentialTaskORM(currentStep, isTestCycle);
-            System.out.println("The step success was: " + STEP_SUCCEEDED_IN_DEADLOCK);
-            currentStep.setMarkedForRemovalFromDeadlock(STEP_SUCCEEDED_IN_DEADLOCK);
-            currentStep.setShouldBeSkipped(true);
-
-            currentStepContainer.set(currentStep.getReferencedTask().getTaskID(), currentStep);
-            System.out.println("The step that was removed had StepID: " + currentStep.getStepID());
-
-        }
-        System.out.println("----- Finished dealing with deadlocked task -----");
-
-        for (Step currentStep : deadlockedStepsContainer)
-            System.out.println("The deadlocked step's ID is: " + currentStep.getStepID()); //TODO remove after
 
-        System.out.println("---- Got to start of deletion, ----");
-        // Deletes those marked for deletion from the deadlocked tasks
-        for (Iterator<Step> deleteIterator = deadlockedStepsContainer.iterator(); deleteIterator.hasNext();)
+        String filePath = args[validateInput(args)];
+        SimulationOptions options = new SimulationOptions(TRACE_LEVEL, VICTIM_POLICY, IS_PARALLEL_SAFETY_CHECK,
+                METRICS_PATH, EVENT_LOG_PATH);
+        options.setGrantPolicy(GRANT_POLICY);
+        try
         {
-            Step currentStep = deleteIterator.next();
-            if (currentStep.isMarkedForRemovalFromDeadlock())
+            // Simulates every input file in the directory on a fork-join pool
+            if (IS_BATCH_MODE)
             {
-                System.out.println("Removed for step ID: " + currentStep.getStepID());
-                deleteIterator.remove();
-                deadlockedStepsContainer.remove(currentStep);
+                BatchSimulation.simulateDirectory(filePath, options, System.out);
+                return;
             }
 
-        }
-        System.out.println("---- Got to end of deletion ----");
-        System.out.println("The number of deadlocked steps after deletion is: " + deadlockedStepsContainer.size());
+            // Reads the input once, every manager shares the same program
+            StepProgram program = StepProgram.fromFile(filePath);
 
-//        for (Step currentStep : deadlockedStepsContainer)
-//        {
-//            currentStep.setMarkedForRemovalFromDeadlock(false);
-//            currentStepContainer.set(currentStep.getReferencedTask().getTaskID(), currentStep);
-//            System.out.println("The deadlocked step's ID is: " + currentStep.getStepID()); //TODO remove after
-//        }
-        // Runs through the rest of the cycle in order, skipping if it has already been run
-        for (int i = 0; i < currentStepContainer.size(); ++i)
-        {
-            //testResourceContainer(); //TODO remove after
-            System.out.println("The number of deadlocked steps is: " + deadlockedStepsContainer.size());
-            Step currentStep = currentStepContainer.get(i);
-            if (currentStep == null)
-                continue;
-            if (currentStep.isShouldBeSkipped())
+            // Places each task in the priority class its map gives, the map's task numbers are the input's
+            if (PRIORITY_MAP_PATH != null)
+                options.setPriorityClassOfEachTask(
+                        GrantPolicy.readPriorityMap(PRIORITY_MAP_PATH, program.getNumberOfTasks()));
+
+            // Runs both managers over every combination of resource totals in place of the input's own
+            if (SWEEP_RANGES != null)
             {
-                // Skips over the step
-                currentStepContainer.set(i, currentStep.getNextStep());
-                System.out.println("Skipping over this step"); //TODO remove after
+                new CapacitySweep(program, SWEEP_RANGES).simulate(options, System.out);
+                return;
             }
-            else
+
+            // Runs the ORM under every grant policy, printing a column per policy in place of its table
+            if (IS_COMPARING_GRANT_POLICIES)
             {
-                // Runs the step
-                System.out.println("Did not skip over this step"); //TODO remove after
-                sequentialTaskORM(currentStep, isTestCycle);
-                currentStepContainer.set(i, currentStep.getNextStep());
+                GrantPolicyComparison.compare(program, options, System.out);
+                return;
             }
-        }
-
-        // TODO remove after
-//        if ((isTestCycle) && (deadlockedStepsContainer.size() ==
-//                taskContainer.size() - abortedTasksContainer.size() - terminatedTasksContainer.size()))
-//        {
-//            DEADLOCK_WAS_DETECTED = true;
-//        }
-    } // End of the simulate a cycle method
-
-    private static void testForNewDeadlock()
-    {
-        // Resets the steps back to their prior state
-        for (int i = 0; i < currentStepContainer.size(); ++i)
-        {
-            Step currentStep = currentStepContainer.get(i);
-            currentStepContainer.set(i, currentStep.getPreviousStep());
-        }
-        simulateACycle(true);
-    } // End of the test for new deadlock method
-
-    private static void releaseAllTaskResources(Task task)
-    {
-        for (Map.Entry<Resource, Integer> entry : task.getResourcesInUse().entrySet())
-        {
-            Resource resource = entry.getKey();
-            int amountToBeReleased = entry.getValue();
 
-            resource.setResourcesCurrentlyAvaillable(resource.getResourcesCurrentlyAvaillable() + amountToBeReleased);
-            resource.getTaskUsageList().remove(task);
-        }
-    } // End of the release task resources method
+            // Runs each partition's managers on their own threads, then prints the merged tables
+            if (PARTITION_MAP_PATH != null)
+            {
+                PartitionedSimulation partitionedSimulation = new PartitionedSimulation(program,
+                        PartitionedSimulation.readPartitionMap(PARTITION_MAP_PATH, program.getNumberOfResources()));
+                if (partitionedSimulation.isIndependent())
+                {
+                    if (TRACE_LEVEL >= TraceLevel.SUMMARY)
+                        System.out.println("Simulating " + partitionedSimulation.getNumberOfPools() + " pools as " +
+                                partitionedSimulation.getNumberOfPartitions() + " partitions\n");
+                    for (SimulationResult result : partitionedSimulation.simulate(options))
+                        System.out.print(result.getOutput());
+                    return;
+                }
 
-    private static void abortTask(Task taskToBeAborted)
-    {
-        taskToBeAborted.setStatus(4);
-        taskToBeAborted.setStopTime(CURRENT_CYCLE_TIME);
-        abortedTasksContainer.add(taskToBeAborted);
-        releaseAllTaskResources(taskToBeAborted);
-    } // End of the abort task method
+                // Pools a task spans are not independent, so the whole program is simulated as usual
+                System.err.println("Warning: " + partitionedSimulation.getNumberOfSpanningTasks() + " task(s), " +
+                        "starting with task " + (partitionedSimulation.getFirstSpanningTask() + 1) + ", use " +
+                        "resources from more than one pool of " + PARTITION_MAP_PATH + ", so the map is ignored and " +
+                        "the input is simulated without partitions\n");
+            }
 
-    private static void dealWithDeadlock()
-    {
-        // Finds the lowest currently running task
-        int lowestTaskIndex = 0;
-        Task lowestTask = taskContainer.get(lowestTaskIndex);
-        for (Task currentTask : taskContainer)
-        {
-            while (taskContainer.get(lowestTaskIndex).getStatus() == 4)
+            // Runs both managers at the same time, then prints their output in order (0 = ORM, 1 = Banker's)
+            ArrayList<SimulationResult> results;
+            try (EventLog eventLog = options.isLoggingEvents()
+                    ? EventLog.open(options.getEventLogPath(), new String[]{filePath}) : null)
             {
-                // Task was aborted, increments and moves up each task
-                ++lowestTaskIndex;
-                lowestTask = taskContainer.get(lowestTaskIndex);
+                results = simulateAllManagers(program, options, eventLog);
             }
+            for (SimulationResult result : results)
+                System.out.print(result.getOutput());
 
-            if ((currentTask.getStatus() == 1) && (lowestTask.getTaskID() > currentTask.getTaskID()))
-                lowestTask = currentTask;
+            // Writes out the metrics collected alongside the output
+            if (options.isCollectingMetrics())
+                MetricsExporter.write(options.getMetricsPath(), new String[]{filePath},
+                        new SimulationResult[][]{results.toArray(new SimulationResult[0])});
         }
-
-        // Aborts the lowest currently running task
-        abortTask(lowestTask);
-
-        // Iterates through and decrements the wait time of any still alive tasks
-        for (Task currentTask : taskContainer)
-        {
-            if ((currentTask.getStatus() != 4) && (currentTask.getStatus() != 3))
-                currentTask.setWaitTime(currentTask.getWaitTime() - 1);
-        }
-
-        // Sets for each of the steps back their booleans
-        for (Step currentStep : currentStepContainer)
-        {
-            currentStep.setMarkedForRemovalFromDeadlock(false);
-            currentStep.setShouldBeSkipped(false);
-        }
-
-        // Clears the deadlocked arraylist
-        for (int i = 0; i < deadlockedStepsContainer.size(); ++i)
-            deadlockedStepsContainer.remove(i);
-
-        deadlockedStepsContainer.clear();
-        System.out.println("############################ size of deadlocked container is: " + deadlockedStepsContainer.size());
-
-        if (IS_VERBOSE_MODE)
+        catch (InvalidInputException e)
         {
-            int outputTask = lowestTask.getTaskID() + 1;
-            System.out.println("Task #" + outputTask + ": has been aborted at time: " + CURRENT_CYCLE_TIME);
+            System.err.println(e.getMessage());
+            System.exit(1);
         }
-    } // End of the deal with deadlock method
+    } // End of the main method
 
+    /***** Application Methods *****/
     /**
-     * A deadlock is defined as when all non-terminated or aborted tasks have outstanding requests that
-     * the manager cannot satisfy.
+     * [Application Method] Runs the ORM and Banker's managers on their own threads, each with its own engine
+     * @param program The parsed input shared by both managers
+     * @param options The trace level, victim policy and safety check mode every engine runs with
+     * @param eventLog The log both managers' events are written to, or null for none
+     * @return Both managers' results, ORM first
+     * @throws InvalidInputException If either manager fails
      */
-    private static boolean isDeadlocked()
+    public static ArrayList<SimulationResult> simulateAllManagers(StepProgram program, SimulationOptions options,
+                                                                  EventLog eventLog)
+            throws InvalidInputException
     {
-        System.out.println("The number of deadlocked tasks before isDeadlocked check is: " + deadlockedStepsContainer.size());
-        int numberOfAliveTasks = taskContainer.size() - (abortedTasksContainer.size() + terminatedTasksContainer.size());
-
-        if ((numberOfAliveTasks == deadlockedStepsContainer.size()) && (numberOfAliveTasks != 0))
+        ExecutorService managerPool = Executors.newFixedThreadPool(NUMBER_OF_MANAGERS);
+        try
         {
-            if (DEADLOCK_WAS_DETECTED)
+            ArrayList<Future<SimulationResult>> managerOutputs = new ArrayList<>();
+            for (int version = 0; version < NUMBER_OF_MANAGERS; ++version)
             {
-                MULTIPLE_DEADLOCK_WAS_DETECTED = true;
-                System.out.println("TTTTTTTTTTTTTTTTTTTTTTTTTTTTTTTTTTTTTT Multiple deadlock was detected");
+                int managerVersion = version;
+                managerOutputs.add(managerPool.submit(() -> simulateManager(program, managerVersion, options,
+                        eventLog, 0)));
             }
-            // Deadlock was found
-            DEADLOCK_WAS_DETECTED = true;
-            return true;
+
+            ArrayList<SimulationResult> results = new ArrayList<>();
+            for (Future<SimulationResult> managerOutput : managerOutputs)
+                results.add(managerOutput.get());
+            return results;
         }
-        else
+        catch (ExecutionException e)
         {
-            // Deadlock was not found
-            return false;
+            if (e.getCause() instanceof InvalidInputException)
+                throw (InvalidInputException) e.getCause();
+            throw new InvalidInputException("Error: A manager failed during simulation: " + e.getCause());
         }
-    } // End of the isDeadlocked method
-
-    /**
-     * Method to deal with sequential tasks executed one after another inside of a single group
-     */
-    private static void sequentialTaskORM(Step currentStep, boolean isTestCycle)
-    {
-        int currentStepType = currentStep.getStepType();
-        Task task = currentStep.getReferencedTask();
-        int outputTaskNumber = task.getTaskID() + 1;
-        int amountRequested = currentStep.getNumberOfResourcesUtilised();
-
-        // Sanity check: checks whether a task is already terminated, throws an error if so
-        if (task.getStatus() == 3)
+        catch (InterruptedException e)
         {
-            System.err.println("Error: Attempting to make a task do an action after termination!");
-            System.exit(1);
+            Thread.currentThread().interrupt();
+            throw new InvalidInputException("Error: Interrupted while waiting for the managers to finish");
         }
-        else if (task.getStatus() == 4)
-        {return;}
-
-        if (isTestCycle)
-            testingWhetherCurrentStepIsValid(currentStep, currentStepType, task, amountRequested);
-        else
-            sequentialTaskORMRealCycle(currentStep, currentStepType, task, outputTaskNumber, amountRequested);
-    } // End of the sequential task, single group ORM method
-
-    private static void requestFailed(Step currentStep, Task task,
-                                      int outputTaskNumber, int amountRequested)
-    {
-        Resource resource =  (Resource) currentStep.getReferencedResource();
-        // Not enough resources are available to grant the request
-        task.setStatus(2);
-        task.setWaitTime(task.getWaitTime() + 1);
-        if (!deadlockedStepsContainer.contains(currentStep))
-            deadlockedStepsContainer.add(currentStep);
-
-        //if ((IS_VERBOSE_MODE) && (!isTestCycle))
-        if (IS_VERBOSE_MODE)
+        finally
         {
-            System.out.println("For step #" + currentStep.getStepID() + ": Task " + outputTaskNumber +
-                    " unsuccessfully requested " + amountRequested + " of resource "
-                    + resource.getResourceID() + " at time: " + CURRENT_CYCLE_TIME);
+            managerPool.shutdown();
         }
-        STEP_SUCCEEDED_IN_DEADLOCK = false;
-    } // End of request failed method
-
-    private static void sequentialTaskORMRealCycle(Step currentStep, int currentStepType, Task task,
-                                                   int outputTaskNumber, int amountRequested)
-    {
-        switch (currentStepType)
-        {
-            case 0:
-            {
-                // Case 0: initiate (real)
-                Resource resource =  (Resource) currentStep.getReferencedResource();
-                // Action is: initiate
-                if (task.getStatus() == 0)
-                {
-                    // First time this is initiated, sets the start time
-                    task.setStartTime(CURRENT_CYCLE_TIME);
-                }
-                task.setStatus(1);
-
-                //if ((IS_VERBOSE_MODE) && (!isTestCycle))
-                if (IS_VERBOSE_MODE)
-                {
-                    System.out.println("For step #" + currentStep.getStepID() + ": Task " + outputTaskNumber +
-                            " initially claims " + currentStep.getNumberOfResourcesUtilised() + " of resource "
-                            + resource.getResourceID() + " at time: " + CURRENT_CYCLE_TIME);
-                }
-                STEP_SUCCEEDED_IN_DEADLOCK = true;
-                break;
-            } // End of case 0: initiate (real)
-            case 1:
-            {
-                // Case 1: request (real)
-                Resource resource =  (Resource) currentStep.getReferencedResource();
-                if (amountRequested <= resource.getResourcesCurrentlyAvaillable())
-                {
-                    // Enough resources are available to grant the request
-                    resource.setResourcesCurrentlyAvaillable(
-                            resource.getResourcesCurrentlyAvaillable() - amountRequested);
-
-                    // Checks whether the resource is already been requested before
-                    HashMap<Resource, Integer> map = task.getResourcesInUse();
-                    if (map.containsKey(resource))
-                    {
-                        // Resource has been requested before, adds the amount requested to the old value
-                        int newValue = map.get(resource) + amountRequested;
-                        map.replace(resource, newValue);
-                    }
-                    else
-                    {
-                        // Resource has not been requested before, adds a new key/ value pair
-                        map.put(resource, amountRequested);
-                        resource.getTaskUsageList().add(task);
-                    }
-
-                    //if ((IS_VERBOSE_MODE) && (!isTestCycle))
-                    if (IS_VERBOSE_MODE)
-                    {
-
-                        System.out.println("For step #" + currentStep.getStepID() + ": Task " + outputTaskNumber +
-                                " successfully requested " + amountRequested + " of resource "
-                                + resource.getResourceID() + " at time: " + CURRENT_CYCLE_TIME);
-                    }
-                    STEP_SUCCEEDED_IN_DEADLOCK = true;
-                } // End of dealing with requests that have enough resources
-                else
-                {
-                    requestFailed(currentStep, task, outputTaskNumber, amountRequested);
-                } // End of dealing with requests that do not have enough resources
-                break;
-            } // End of case 1: request (real)
-            case 2:
-            {
-                // Case 2: compute (real)
-                // Task is computing (will make no more requests/release for a certain number of cycles)
-                // Adds the number of cycles the task is busy with computation: only works for given datasets
-                int computeTime = (int) currentStep.getReferencedResource();
-                CURRENT_CYCLE_TIME += computeTime;
-
-                //if ((IS_VERBOSE_MODE) && (!isTestCycle))
-                if (IS_VERBOSE_MODE)
-                {
-                    System.out.println("For step #" + currentStep.getStepID() + ": Task " + outputTaskNumber +
-                            " is computing for " + computeTime + " at time: " + CURRENT_CYCLE_TIME);
-                }
-                STEP_SUCCEEDED_IN_DEADLOCK = true;
-                break;
-            } // End of case 2: compute (real)
-            case 3:
-            {
-                // Case 3: release (real)
-                Resource resource =  (Resource) currentStep.getReferencedResource();
-                if (task.getResourcesInUse().get(resource) < amountRequested)
-                {
-                    // [FAIL] Deals with when a resource is requesting to release more than is already allocated
-
-                    // Not enough resources are available to grant the request
-                    requestFailed(currentStep, task, outputTaskNumber, amountRequested);
-                }
-                else
-                {
-                    // [SUCCESS] Deals with when a resource is able to release all requested resources
-                    // Adds to the hashmap any resources to be freed at the start of the cycle
-                    resourcesToBeFreedAtStartOfCycle.put(resource, amountRequested);
-
-                    // Clears up the task's resource map
-                    HashMap<Resource, Integer> map = task.getResourcesInUse();
-                    int currentAmountUsedBeforeRelease = task.getResourcesInUse().get(resource);
-
-                    // For any resource released, it is available at the end of the current cycle
-                    if (currentAmountUsedBeforeRelease - amountRequested == 0)
-                    {
-                        // No more of that resource type remaining for the task
-                        map.remove(resource);
-                        resource.getTaskUsageList().remove(task);
-                    }
-                    else if (currentAmountUsedBeforeRelease - amountRequested > 0)
-                    {
-                        // There is some amount of that resource type remaining for the task
-                        map.replace(resource, map.get(resource) - amountRequested);
-                    }
-                    else
-                    {
-                        // An error occurred, more resources were released than were allocated to the task
-                        System.err.println("Error: More resources were released than were allocated to the task");
-                        System.exit(1);
-                    }
-
-                    //if ((IS_VERBOSE_MODE) && (!isTestCycle))
-                    if (IS_VERBOSE_MODE)
-                    {
-                        int releaseTime = CURRENT_CYCLE_TIME + 1;
-                        System.out.println("For step #" + currentStep.getStepID() + ": Task " + outputTaskNumber +
-                                " successfully released " + amountRequested + " of resource "
-                                + resource.getResourceID() + " at time: " + CURRENT_CYCLE_TIME
-                                + " which is available at time: " + releaseTime);
-                    }
-                    STEP_SUCCEEDED_IN_DEADLOCK = true;
-                }
-                break;
-            } // End of case 3: release (real)
-            case 4:
-            {
-                // Case 4: terminate (real)
-                task.setStopTime(CURRENT_CYCLE_TIME);
-
-                HashMap<Resource, Integer> map = task.getResourcesInUse();
-                // Releases all resources utilised by this task
-                for (Map.Entry<Resource, Integer> entry : map.entrySet())
-                {
-                    Resource currentResource = entry.getKey();
-                    int amountToBeReleased = entry.getValue();
-
-                    // Deals with resource stuff
-                    currentResource.getTaskUsageList().remove(task);
-                    int newValue = currentResource.getResourcesCurrentlyAvaillable() + amountToBeReleased;
-                    currentResource.setResourcesCurrentlyAvaillable(newValue);
-
-                    // Deals with task stuff
-                    map.remove(currentResource);
-                }
-
-                // Updates the status
-                task.setStatus(3);
-                terminatedTasksContainer.add(task);
-
-                //if ((IS_VERBOSE_MODE) && (!isTestCycle))
-                if (IS_VERBOSE_MODE)
-                {
-                    System.out.println("For step #" + currentStep.getStepID() + ": Task " + outputTaskNumber +
-                            " terminated at time: " + CURRENT_CYCLE_TIME);
-                }
-                STEP_SUCCEEDED_IN_DEADLOCK = true;
-                break;
-            } // End of case 4: terminate (real)
-            default:
-                // Action is none of the above
-                System.err.println("Error: Invalid action was requested in ORM");
-                System.exit(1);
-                break;
-        } // End of dealing with ORM real cycle
-    } // End of the sequential task ORM real cycle
-
-    private static void testingWhetherCurrentStepIsValid(Step currentStep, int currentStepType,
-                                                         Task task, int amountRequested)
-    {
-        switch (currentStepType)
-        {
-            case 0:
-            {
-                // Case 0: initiate (test)
-                STEP_SUCCEEDED_IN_DEADLOCK = true;
-                break;
-            } // End of case 0: initiate (test)
-            case 1:
-            {
-                // Case 1: request (test)
-                Resource resource =  (Resource) currentStep.getReferencedResource();
-                if (amountRequested <= resource.getResourcesCurrentlyAvaillable())
-                {
-                    // Enough resources are available to grant the request
-                    task.setWaitTime(task.getWaitTime() + 1);
-                    STEP_SUCCEEDED_IN_DEADLOCK = true;
-                }
-                else
-                {
-                    // Not enough resources are available to grant the request
-                    STEP_SUCCEEDED_IN_DEADLOCK = false;
-                }
-                break;
-            } // End of case 1: request (test)
-            case 2:
-            {
-                // Case 2: compute (test)
-                STEP_SUCCEEDED_IN_DEADLOCK = true;
-                break;
-            } // End of case 2: compute (test)
-            case 3:
-            {
-                // Case 3: release (test)
-                Resource resource =  (Resource) currentStep.getReferencedResource();
-                STEP_SUCCEEDED_IN_DEADLOCK = task.getResourcesInUse().get(resource) >= amountRequested;
-                    break;
-            } // End of case 3: release (test)
-            case 4:
-            {
-                // Case 4: terminate (test)
-                STEP_SUCCEEDED_IN_DEADLOCK = true;
-                break;
-            } // End of case 4: terminate (test)
-            default:
-                // Action is none of the above
-                System.err.println("Error: Invalid action was requested in ORM");
-                System.exit(1);
-                break;
-        } // End of dealing with ORM test cycle
-    } // End of the sequential task ORM test cycle method
+    } // End of the simulate all managers method
 
     /**
-     * [Application Method] Simulates the banker's algorithm resource manager
+     * [Application Method] Runs a single manager against its own engine, buffering what it prints
+     * @param program The parsed input
+     * @param version 0 is opportunistic resource manager, 1 is for banker's algorithm
+     * @param options The trace level, victim policy and safety check mode the engine runs with
+     * @param eventLog The log the manager's events are written to, or null for none
+     * @param inputIndex The index of the input among the event log's input names
+     * @return The manager's totals, along with its output
+     * @throws InvalidInputException If the manager fails
      */
-    private static void simulateBankers()
+    public static SimulationResult simulateManager(StepProgram program, int version, SimulationOptions options,
+                                                   EventLog eventLog, int inputIndex)
+            throws InvalidInputException
     {
-
-
-    } // End of the simulate banker's method
-
-    /***** Helper Methods *****/
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(buffer);
+        SimulationEngine engine = new SimulationEngine(program, out, options);
+        engine.setEventLog(eventLog, inputIndex);
+        SimulationResult result = engine.simulationWrapper(version);
+        out.flush();
+        result.setOutput(buffer.toString());
+        return result;
+    } // End of the simulate manager method
 
     /**
-     * [Helper Method] Helps validate the input for this program
-     * @param args The commandline input given
-     * @return returns the index of the filepath
+     * [Application Method] Converts a text input file, or a directory of them, into binary traces
+     * @param args The commandline input given, of the form 'convert <input> <output>'
      */
-    private static int validateInput(String[] args)
+    private static void convertInput(String[] args)
     {
-        String invalidForm = "Error: Input is invalid, please make sure the input is of the form " +
-                "'java out/production/Lab3/SimulateResourceManagers <filepath>'";
-
-        // Identifies filepath index
-        int filePathIndex;
-        if (args.length == 1)
-            filePathIndex = 0;
-        else
-            filePathIndex = 1;
         try
         {
-            // Checks for input numbers
-            if ((args.length != 1) && (args.length != 2))
-                throw new InvalidInputException(invalidForm);
-
-            // Checks for valid verbose flag
-            if (args.length != 1)
-            {
-                if (!args[0].equals("--verbose"))
-                    throw new InvalidInputException(invalidForm);
-                else
-                    IS_VERBOSE_MODE = true;
-            }
+            if (args.length != 3)
+                throw new InvalidInputException("Error: Input is invalid, please make sure the input is of the form " +
+                        "'java out/production/Lab3/SimulateResourceManagers convert <input> <output>'");
 
-            // Checks for file existence
-            File testFile = new File(args[filePathIndex]);
-            if (!testFile.isFile())
-                throw new SecurityException("Error: The input was not a valid file, please check your command input");
+            int numberOfFilesConverted = BinaryTrace.convert(args[1], args[2]);
+            System.out.println("Converted " + numberOfFilesConverted + " file(s) into " + args[2]);
         }
-        catch (InvalidInputException | SecurityException e)
+        catch (InvalidInputException e)
         {
             System.err.println(e.getMessage());
             System.exit(1);
         }
-        return filePathIndex;
-    } // End of the validate input method
+    } // End of the convert input method
 
     /**
-     * [Helper Method] Fills all containers with created objects, given a valid filepath
-     * @param filePath The input file path, given as a String
+     * [Application Method] Writes a synthetic workload out as a text input file
+     * @param args The commandline input given, of the form 'generate [--name=value ...] <output>'
      */
-    private static void fillAllContainers(String filePath)
+    private static void generateInput(String[] args)
     {
-        FileReader fr = null;
-        Scanner fileScanner = null;
         try
         {
-            fr = new FileReader(filePath);
-            fileScanner = new Scanner(fr);
-
-            int numberOfTasks = fileScanner.nextInt(); // Reads in T: the number of tasks to be run
-            int numberOfResourceTypes = fileScanner.nextInt(); // Reads in R: The number of resource types available
-
-            // Fills the resource container
-            for (int i = 0; i < numberOfResourceTypes; ++i)
-            {
-                int totalResourceAvailable = fileScanner.nextInt();
-                if (fileScanner.hasNext())
-                    resourceContainer.add(new Resource(i, totalResourceAvailable,
-                            totalResourceAvailable, new ArrayList<>()));
-            }
-
-            // Fills the task container
-            for (int i = 0; i < numberOfTasks; ++i)
-                taskContainer.add(new Task(i, 0, 0, 0, 0, new HashMap<>()));
-
-            // Removes the next line from the read
-            fileScanner.nextLine();
-
-            boolean isFirstTime = true;
-            boolean isTask1Running = false;
-            boolean isTask2Running = false;
-            // Fills the step container
-            int i = 0;
-            while (fileScanner.hasNextLine())
-            {
-                String currentLine = fileScanner.nextLine();
-                //System.out.println(currentLine);
+            if ((args.length < 2) || (args[args.length - 1].startsWith("--")))
+                throw new InvalidInputException("Error: Input is invalid, please make sure the input is of the form " +
+                        "'java out/production/Lab3/SimulateResourceManagers generate [--tasks=n] [--resources=n] " +
+                        "[--capacity=n[,n...]] [--rounds=n] [--holds=n] [--request-size=<distribution>] " +
+                        "[--compute=<distribution>] [--deadlock=p] [--seed=n] <output>'");
 
-                // Check to deal with input 2 (malformed input, but oh well)
-                if ((isFirstTime) && (currentLine.equals("")))
-                    currentLine = fileScanner.nextLine();
-
-                // Creates the step objects
-                if (currentLine.equals(""))
-                {
-                    ++NUMBER_OF_GROUPS;
-                    continue;
-                }
-                Scanner subScanner = new Scanner(currentLine);
-                String stepTypeRaw = subScanner.next();
-
-                int referencedTaskRaw = subScanner.nextInt();
-
-                // Shit to make the multigroup check work
-                if ((referencedTaskRaw == 1) && (stepTypeRaw.equals("initiate")))
-                    isTask1Running = true;
-                else if ((referencedTaskRaw == 1) && (stepTypeRaw.equals("terminate")))
-                    isTask1Running = false;
-                else if ((referencedTaskRaw == 2) && (stepTypeRaw.equals("initiate")))
-                    isTask2Running = true;
-                else if ((referencedTaskRaw == 2) && (stepTypeRaw.equals("terminate")))
-                    isTask2Running = false;
-
-                if (IS_SEQUENTIAL_TASK)
-                    checkForMultiGroup(isTask1Running, isTask2Running);
-                int referencedResourceRaw = subScanner.nextInt();
-                int numberOfResourcesUtilised = subScanner.nextInt();
-
-                int convertedStepType;
-                Object referencedResource;
-                switch (stepTypeRaw)
-                {
-                    case "initiate":
-                        convertedStepType = 0;
-                        //referencedResource = referencedResourceRaw - 1;
-                        referencedResource = resourceContainer.get(referencedResourceRaw - 1);
-                        break;
-                    case "request":
-                        convertedStepType = 1;
-                        //referencedResource = referencedResourceRaw - 1;
-                        referencedResource = resourceContainer.get(referencedResourceRaw - 1);
-                        break;
-                    case "compute":
-                        convertedStepType = 2;
-                        referencedResource = referencedResourceRaw;
-                        break;
-                    case "release":
-                        convertedStepType = 3;
-                        //referencedResource = referencedResourceRaw - 1;
-                        referencedResource = resourceContainer.get(referencedResourceRaw - 1);
-                        break;
-                    case "terminate":
-                        convertedStepType = 4;
-                        referencedResource = referencedResourceRaw;
-                        break;
-                    default:
-                        throw new InvalidInputException(
-                                "Error: Invalid activity found, please check the spelling in the input file");
-                }
-                Step stepToBeAdded = new Step(i, convertedStepType, NUMBER_OF_GROUPS,
-                        taskContainer.get(referencedTaskRaw - 1), referencedResource, numberOfResourcesUtilised,
-                        null, null, false, false);
-                stepContainer.add(stepToBeAdded);
-
-                // Adds the new step if it's an initiate request and the task referenced is unique
-                if (stepTypeRaw.equals("initiate"))
-                {
-                    boolean taskPointerIsAlreadySet = false;
-                    for (Step currentStep : currentStepContainer)
-                    {
-                        if (currentStep.getReferencedTask().equals(stepToBeAdded.getReferencedTask()))
-                            taskPointerIsAlreadySet = true;
-                    }
-
-                    if (!taskPointerIsAlreadySet)
-                        currentStepContainer.add(stepToBeAdded);
-                } // End of adding step if it's a unique initiate request
-
-                isFirstTime = false;
-                ++i;
-                subScanner.close();
-            } // End of scanning through the input file
-            if (NUMBER_OF_GROUPS == 0)
-                NUMBER_OF_GROUPS = 1;
+            WorkloadGenerator generator = WorkloadGenerator.fromFlags(Arrays.copyOfRange(args, 1, args.length - 1));
+            long numberOfActivities = generator.write(args[args.length - 1]);
+            System.out.println("Generated " + numberOfActivities + " activities into " + args[args.length - 1]);
         }
-        catch (FileNotFoundException | InvalidInputException e)
+        catch (InvalidInputException e)
         {
             System.err.println(e.getMessage());
             System.exit(1);
         }
-        finally
-        {
-            if (fr != null)
-            {
-                try {
-                    fr.close();
-                } catch (IOException e)
-                {
-                    System.err.println("Error: Could not close input file");
-                    System.exit(1);
-                }
-            }
-            if (fileScanner != null)
-                fileScanner.close();
-        } // End of the finally block
-
-        setNextAndPreviousSteps();
-    } // End of the fill all containers method
-
-    private static void setNextAndPreviousSteps()
-    {
-        for (int i = 0; i < stepContainer.size() - 1; ++i)
-        {
-            Step currentStep = stepContainer.get(i);
-            int nextStepCounter = i + 1;
-            Step nextStep = stepContainer.get(nextStepCounter);
-
-            while (!nextStep.getReferencedTask().equals(currentStep.getReferencedTask()))
-            {
-                ++nextStepCounter;
-                if (nextStepCounter >= stepContainer.size())
-                {
-                    nextStep = null;
-                    break;
-                }
-                else
-                    nextStep = stepContainer.get(nextStepCounter);
-            }
-            currentStep.setNextStep(nextStep);
-            if (currentStep.getNextStep() != null)
-                currentStep.getNextStep().setPreviousStep(currentStep);
-        }
-    } // End of the set next steps method
-
-
-    private static void checkForMultiGroup(boolean isTask1Running, boolean isTask2Running)
-    {
-        IS_SEQUENTIAL_TASK = !((isTask1Running) && (isTask2Running));
-    } // End of the check for multi group method
+    } // End of the generate input method
 
     /**
-     * [Helper Method] Resets everything between simulation runs
+     * [Application Method] Prints the event counts of every run in an event log, and every event if asked for
+     * @param args The commandline input given, of the form 'events [--all] <log_file>'
      */
-    private static void reset()
+    private static void readEventLog(String[] args)
     {
-        // Resets all resources
-        for (Resource currentResource : resourceContainer)
-        {
-            currentResource.setTaskUsageList(new ArrayList<>());
-            currentResource.setResourcesCurrentlyAvaillable(currentResource.getTotalAmountOfResouceAvailable());
-        }
-
-        // Resets all tasks
-        for (Task currentTask : taskContainer)
+        try
         {
-            currentTask.setResourcesInUse(new HashMap<>());
-            currentTask.setStartTime(0);
-            currentTask.setWaitTime(0);
-            currentTask.setStopTime(0);
-            currentTask.setStatus(0);
-        }
-
-        // Resets time
-        CURRENT_CYCLE_TIME = 0;
-
-    } // End of the reset method
+            boolean isPrintingEvents = (args.length == 3) && (args[1].equals("--all"));
+            if ((args.length != 2) && (!isPrintingEvents))
+                throw new InvalidInputException("Error: Input is invalid, please make sure the input is of the form " +
+                        "'java out/production/Lab3/SimulateResourceManagers events [--all] <log_file>'");
 
-    /**
-     * [Helper Method] Prints the output of the simulation round
-     */
-    private static void printOutput(int version)
-    {
-        switch (version)
-        {
-            case 0:
-                System.out.println("\t\tFIFO");
-                break;
-            case 1:
-                System.out.println("\t\tBANKER'S\n");
-                break;
-            default:
-                System.err.println("Error: Invalid run number given during print out!");
-                System.exit(1);
+            EventLogReader.summarise(args[args.length - 1], isPrintingEvents, System.out);
         }
-
-        int totalWaitTime = 0;
-        // Iterates through the tasks and prints out the per task metadata
-        long globalTimeRun = 0;
-        for (Task currentTask : taskContainer)
+        catch (InvalidInputException e)
         {
-            // Task was aborted early, prints abort message
-            if (currentTask.getStatus() == 4)
-            {
-                int externalPrintID = currentTask.getTaskID() + 1;
-                System.out.println("\tTask " + externalPrintID + "  \taborted");
-            }
-            else
-            {
-                // Amount of time taken to complete the task (includes blocked time)
-                int turnAround = currentTask.getStopTime() - currentTask.getStartTime();
-                globalTimeRun += turnAround;
-                totalWaitTime += currentTask.getWaitTime();
-
-                // Percentage of time spent waiting
-                double percentageOfTimeSpentWaiting = ((double) currentTask.getWaitTime() /
-                        ((double) turnAround))*(100.000000);
-                System.out.printf("\tTask %d  \t%d\t%d\t%6f%%\n", currentTask.getTaskID() + 1,
-                        turnAround, currentTask.getWaitTime(), percentageOfTimeSpentWaiting);
-            }
+            System.err.println(e.getMessage());
+            System.exit(1);
         }
+    } // End of the read event log method
 
-        // Calculates the total percentage of time spent waiting
-        double globalPercentageOfTimeSpentWaiting = ((double)totalWaitTime/((double) globalTimeRun))*(100.000000);
-
-        // Prints out the global totals
-        System.out.printf("\tTotal\t\t%d\t%d\t%6f%%\n", globalTimeRun, totalWaitTime,
-                globalPercentageOfTimeSpentWaiting);
-    } // End of the print output method
-
-    /***** Testing Suite *****/
-    /**
-     * [Test Method] Tests each container to see if they have the correct internals
-     */
-    private static void testAllContainers()
-    {
-        testStepContainer();
-        testResourceContainer();
-        testTaskContainer();
-    } // End of the test all containers method
+    /***** Helper Methods *****/
 
     /**
-     * [Test Method] Tests the step container for correct internals
+     * [Helper Method] Helps validate the input for this program
+     * @param args The commandline input given
+     * @return returns the index of the filepath, or of the directory in batch mode
      */
-    private static void testStepContainer()
+    private static int validateInput(String[] args)
     {
-        for (Step currentStep : stepContainer)
+        String invalidForm = "Error: Input is invalid, please make sure the input is of the form " +
+                "'java out/production/Lab3/SimulateResourceManagers [--verbose | --trace=<level>] " +
+                "[--victim=<policy>] [--grant=<policy>] [--priorities=<map_file>] [--parallel-safety] " +
+                "[--metrics=<file>] [--events=<file>] <filepath>' or " +
+                "'java out/production/Lab3/SimulateResourceManagers [--trace=<level>] [--victim=<policy>] " +
+                "[--grant=<policy>] [--parallel-safety] --partitions=<map_file> <filepath>' or " +
+                "'java out/production/Lab3/SimulateResourceManagers [--verbose | --trace=<level>] " +
+                "[--victim=<policy>] [--priorities=<map_file>] [--parallel-safety] --grant=all <filepath>' or " +
+                "'java out/production/Lab3/SimulateResourceManagers [--victim=<policy>] [--grant=<policy>] " +
+                "[--parallel-safety] --sweep=<range>[,<range>...] <filepath>' or " +
+                "'java out/production/Lab3/SimulateResourceManagers [--verbose | --trace=<level>] " +
+                "[--victim=<policy>] [--grant=<policy>] [--parallel-safety] [--metrics=<file>] [--events=<file>] " +
+                "--batch <directory>'";
+
+        // Identifies filepath index, every argument before it is a flag
+        int filePathIndex = args.length - 1;
+        try
         {
-            System.out.println("The current step's ID is: " + currentStep.getStepID());
-            System.out.println("The current step's group is: " + currentStep.getGroup());
-            System.out.println("The current step's referenced task ID is: "
-                    + currentStep.getReferencedTask().getTaskID());
-
-            if ((currentStep.getStepType() == 0) || (currentStep.getStepType() == 1)
-                    || (currentStep.getStepType() == 3))
-            {
-                Resource currentReferencedResource = (Resource) currentStep.getReferencedResource();
-                System.out.println("The current step's referenced resource ID is: "
-                        + currentReferencedResource.getResourceID());
+            // Checks for input numbers
+            if (args.length == 0)
+                throw new InvalidInputException(invalidForm);
 
-            }
-            System.out.println("The current step's number of resources utilised is: "
-                    + currentStep.getNumberOfResourcesUtilised());
-            System.out.print("The current step's type is: ");
-            try
+            // Checks for valid flags, only a single trace level and victim policy may be given
+            boolean hasTraceLevel = false;
+            boolean hasVictimPolicy = false;
+            boolean hasGrantPolicy = false;
+            for (int i = 0; i < filePathIndex; ++i)
             {
-                switch (currentStep.getStepType())
+                if ((args[i].equals("--verbose")) && (!hasTraceLevel))
                 {
-                    case 0:
-                        System.out.println("initiate");
-                        break;
-                    case 1:
-                        System.out.println("request");
-                        break;
-                    case 2:
-                        System.out.println("compute");
-                        break;
-                    case 3:
-                        System.out.println("release");
-                        break;
-                    case 4:
-                        System.out.println("terminate");
-                        break;
-                    default:
-                        throw new InvalidInputException(
-                                "Error: Invalid activity found, please check the spelling in the input file");
+                    TRACE_LEVEL = TraceLevel.VERBOSE;
+                    hasTraceLevel = true;
                 }
+                else if ((args[i].startsWith("--trace=")) && (!hasTraceLevel))
+                {
+                    TRACE_LEVEL = TraceLevel.fromName(args[i].substring("--trace=".length()));
+                    hasTraceLevel = true;
+                }
+                else if ((args[i].startsWith("--victim=")) && (!hasVictimPolicy))
+                {
+                    VICTIM_POLICY = VictimPolicy.fromName(args[i].substring("--victim=".length()));
+                    hasVictimPolicy = true;
+                }
+                else if ((args[i].equals("--grant=all")) && (!hasGrantPolicy))
+                {
+                    IS_COMPARING_GRANT_POLICIES = true;
+                    hasGrantPolicy = true;
+                }
+                else if ((args[i].startsWith("--grant=")) && (!hasGrantPolicy))
+                {
+                    GRANT_POLICY = GrantPolicy.fromName(args[i].substring("--grant=".length()));
+                    hasGrantPolicy = true;
+                }
+                else if ((args[i].equals("--parallel-safety")) && (!IS_PARALLEL_SAFETY_CHECK))
+                    IS_PARALLEL_SAFETY_CHECK = true;
+                else if ((args[i].startsWith("--metrics=")) && (METRICS_PATH == null)
+                        && (args[i].length() > "--metrics=".length()))
+                    METRICS_PATH = args[i].substring("--metrics=".length());
+                else if ((args[i].startsWith("--events=")) && (EVENT_LOG_PATH == null)
+                        && (args[i].length() > "--events=".length()))
+                    EVENT_LOG_PATH = args[i].substring("--events=".length());
+                else if ((args[i].startsWith("--partitions=")) && (PARTITION_MAP_PATH == null)
+                        && (args[i].length() > "--partitions=".length()))
+                    PARTITION_MAP_PATH = args[i].substring("--partitions=".length());
+                else if ((args[i].startsWith("--priorities=")) && (PRIORITY_MAP_PATH == null)
+                        && (args[i].length() > "--priorities=".length()))
+                    PRIORITY_MAP_PATH = args[i].substring("--priorities=".length());
+                else if ((args[i].startsWith("--sweep=")) && (SWEEP_RANGES == null))
+                    SWEEP_RANGES = CapacitySweep.parseRanges(args[i].substring("--sweep=".length()));
+                else if ((args[i].equals("--batch")) && (i == filePathIndex - 1))
+                    IS_BATCH_MODE = true;
+                else
+                    throw new InvalidInputException(invalidForm);
             }
-            catch (InvalidInputException e)
-            {
-                System.err.println(e.getMessage());
-                System.exit(1);
-            }
-        } // End of iterating through all steps
-    } // End of the test step container method
 
-    /**
-     * [Test Method] Tests the resource container for correct internals
-     */
-    private static void testResourceContainer()
-    {
-        for (Resource currentResource : resourceContainer)
-        {
-            System.out.println("The current resource's ID is: " + currentResource.getResourceID());
-            System.out.println("The current resource's total available amount is: "
-                    + currentResource.getTotalAmountOfResouceAvailable());
-            System.out.println("The current resource's current available amount is: "
-                    + currentResource.getResourcesCurrentlyAvaillable());
+            // Partitions only merge each task's outcome, so there are no whole-run metrics or events to write
+            if ((PARTITION_MAP_PATH != null)
+                    && ((IS_BATCH_MODE) || (METRICS_PATH != null) || (EVENT_LOG_PATH != null)))
+                throw new InvalidInputException(invalidForm);
 
-            System.out.print("The current resource is currently in use by:");
-            for (Task currentTask : currentResource.getTaskUsageList())
-            {
-                int taskIDOutput = currentTask.getTaskID() + 1;
-                System.out.print(" Task " + taskIDOutput + " (" +
-                        currentTask.getResourcesInUse().get(currentResource) + ")");
-            }
-            System.out.println();
+            // Comparing policies replaces the FIFO table of a single input, there is only one run per policy
+            if ((IS_COMPARING_GRANT_POLICIES) && ((IS_BATCH_MODE) || (PARTITION_MAP_PATH != null)
+                    || (METRICS_PATH != null) || (EVENT_LOG_PATH != null)))
+                throw new InvalidInputException(invalidForm);
+            // A sweep prints a row per configuration of a single input, with no trace, metrics or events
+            if ((SWEEP_RANGES != null) && ((IS_BATCH_MODE) || (PARTITION_MAP_PATH != null)
+                    || (IS_COMPARING_GRANT_POLICIES) || (hasTraceLevel) || (METRICS_PATH != null)
+                    || (EVENT_LOG_PATH != null)))
+                throw new InvalidInputException(invalidForm);
+            // A priority map numbers the tasks of one input run whole, so batches, partitions and sweeps refuse it
+            if ((PRIORITY_MAP_PATH != null)
+                    && ((IS_BATCH_MODE) || (PARTITION_MAP_PATH != null) || (SWEEP_RANGES != null)))
+                throw new InvalidInputException(invalidForm);
+            if ((PARTITION_MAP_PATH != null) && (!new File(PARTITION_MAP_PATH).isFile()))
+                throw new SecurityException(
+                        "Error: The partition map was not a valid file, please check your command input");
+            if ((PRIORITY_MAP_PATH != null) && (!new File(PRIORITY_MAP_PATH).isFile()))
+                throw new SecurityException(
+                        "Error: The priority map was not a valid file, please check your command input");
+
+            // Checks for file or directory existence
+            File testFile = new File(args[filePathIndex]);
+            if ((IS_BATCH_MODE) && (!testFile.isDirectory()))
+                throw new SecurityException("Error: The input was not a valid directory, please check your command input");
+            else if ((!IS_BATCH_MODE) && (!testFile.isFile()))
+                throw new SecurityException("Error: The input was not a valid file, please check your command input");
         }
-    } // End of the test resource container method
-
-    /**
-     * [Test Method] Tests the task container for correct internals
-     */
-    private static void testTaskContainer()
-    {
-        for (Task currentTask : taskContainer)
+        catch (InvalidInputException | SecurityException e)
         {
-            System.out.println("The current task's ID is: " + currentTask.getTaskID());
-            System.out.println("The current task's start time is: " + currentTask.getStartTime());
-            System.out.println("The current task's wait time is: " + currentTask.getWaitTime());
-            System.out.println("The current task's stop time is: " + currentTask.getStopTime());
-            System.out.println("The current task's status is: " + currentTask.getStatus());
-
-            System.out.print("The current task's is using resources:");
-            for (Map.Entry<Resource, Integer> entry : currentTask.getResourcesInUse().entrySet())
-            {
-                Resource resource = entry.getKey();
-                Integer amount = entry.getValue();
-
-                System.out.print(" " + resource.getResourceID());
-                System.out.print("(" + amount + ")");
-            }
-            System.out.println();
+            System.err.println(e.getMessage());
+            System.exit(1);
         }
-    } // End of the test task container method
-
+        return filePathIndex;
+    } // End of the validate input method
 } // End of the simulate resource managers class
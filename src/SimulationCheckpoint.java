@@ -0,0 +1,136 @@
+/**
+ * Simulation checkpoint object class, a snapshot of everything a simulation run changes: the clock, each task's
+ * status, times, holdings and current step, each resource's availability and pending frees, and which tasks are in
+ * which waiting or ended container. Every part is kept as a primitive array, tasks by ID, so taking or restoring a
+ * checkpoint is a handful of array copies and never touches the shared program
+ */
+public class SimulationCheckpoint
+{
+    // Clock
+    private int currentCycleTime;
+
+    // Task columns, indexed by task ID
+    private int[] status;
+    private int[] startTime;
+    private int[] stopTime;
+    private int[] waitTime;
+    private int[] readyTime;
+    private int[] currentStep;
+    private int[] timeBlockedAt;
+    private int[] resourcesInUse; // [taskID * numberOfResources + resourceID]
+
+    // Resource columns, indexed by resource ID, each resource's holders are rebuilt from the task holdings
+    private int[] resourcesAvailable;
+    private int[] resourcesToBeFreed;
+
+    // Container contents as task IDs, in container order
+    private int[][] waitQueueOfEachResource;
+    private int[] blockedTasks;
+    private int[] computingTasks;
+    private int[] terminatedTasks;
+    private int[] abortedTasks;
+
+    /**
+     * Simulation checkpoint object constructor, the columns are filled in by the engine taking the checkpoint
+     * @param numberOfTasks The number of tasks in the program
+     * @param numberOfResources The number of resource types in the program
+     */
+    public SimulationCheckpoint(int numberOfTasks, int numberOfResources)
+    {
+        this.status = new int[numberOfTasks];
+        this.startTime = new int[numberOfTasks];
+        this.stopTime = new int[numberOfTasks];
+        this.waitTime = new int[numberOfTasks];
+        this.readyTime = new int[numberOfTasks];
+        this.currentStep = new int[numberOfTasks];
+        this.timeBlockedAt = new int[numberOfTasks];
+        this.resourcesInUse = new int[numberOfTasks * numberOfResources];
+        this.resourcesAvailable = new int[numberOfResources];
+        this.resourcesToBeFreed = new int[numberOfResources];
+        this.waitQueueOfEachResource = new int[numberOfResources][];
+    } // End of the simulation checkpoint constructor
+
+    public int getCurrentCycleTime() {
+        return currentCycleTime;
+    }
+
+    public void setCurrentCycleTime(int currentCycleTime) {
+        this.currentCycleTime = currentCycleTime;
+    }
+
+    public int[] getStatus() {
+        return status;
+    }
+
+    public int[] getStartTime() {
+        return startTime;
+    }
+
+    public int[] getStopTime() {
+        return stopTime;
+    }
+
+    public int[] getWaitTime() {
+        return waitTime;
+    }
+
+    public int[] getReadyTime() {
+        return readyTime;
+    }
+
+    public int[] getCurrentStep() {
+        return currentStep;
+    }
+
+    public int[] getTimeBlockedAt() {
+        return timeBlockedAt;
+    }
+
+    public int[] getResourcesInUse() {
+        return resourcesInUse;
+    }
+
+    public int[] getResourcesAvailable() {
+        return resourcesAvailable;
+    }
+
+    public int[] getResourcesToBeFreed() {
+        return resourcesToBeFreed;
+    }
+
+    public int[][] getWaitQueueOfEachResource() {
+        return waitQueueOfEachResource;
+    }
+
+    public int[] getBlockedTasks() {
+        return blockedTasks;
+    }
+
+    public void setBlockedTasks(int[] blockedTasks) {
+        this.blockedTasks = blockedTasks;
+    }
+
+    public int[] getComputingTasks() {
+        return computingTasks;
+    }
+
+    public void setComputingTasks(int[] computingTasks) {
+        this.computingTasks = computingTasks;
+    }
+
+    public int[] getTerminatedTasks() {
+        return terminatedTasks;
+    }
+
+    public void setTerminatedTasks(int[] terminatedTasks) {
+        this.terminatedTasks = terminatedTasks;
+    }
+
+    public int[] getAbortedTasks() {
+        return abortedTasks;
+    }
+
+    public void setAbortedTasks(int[] abortedTasks) {
+        this.abortedTasks = abortedTasks;
+    }
+} // End of the simulation checkpoint class
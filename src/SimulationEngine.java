@@ -0,0 +1,1129 @@
+import java.io.PrintStream;
+import java.util.*;
+
+/**
+ * Simulation engine object class, owning all of the state for a single input file so that any number of
+ * independent simulations can be run at the same time
+ */
+public class SimulationEngine
+{
+    // Simulation state
+    private StepProgram program;
+    private ResourceTable resourceTable;
+    private ArrayList<Task> taskContainer;
+    private int currentCycleTime;
+    private final boolean isSummaryMode;
+    private final boolean isVerboseMode;
+    private final boolean isDebugMode;
+    private int victimPolicy; // See VictimPolicy
+    private int grantPolicy; // See GrantPolicy
+    private boolean isParallelSafetyCheck;
+    private boolean isCollectingMetrics;
+    private boolean isLoggingEvents;
+    private boolean resourcesChangedThisCycle;
+    private boolean requestBlockedThisCycle;
+    private PrintStream out;
+
+    // Per run step state, each task's current step, so the shared program is never written to
+    private int[] currentStepOfEachTask;
+
+    // Waiting tasks containers. The ORM queues blocked requests on their resource in the order its grant policy
+    // serves them, the banker's algorithm retries every blocked task in the order they were blocked, and computing
+    // tasks are kept by ready time
+    private ArrayList<Collection<Task>> waitQueueOfEachResource;
+    private int numberOfQueuedRequests;
+    private WaitForGraph waitForGraph; // The ORM's queued requests, kept up to date alongside the wait queues
+    private int[] timeBlockedAt; // Indexed by task ID
+    private ArrayList<Task> blockedTasks;
+    private PriorityQueue<Task> computingTasks;
+
+    // What the ORM's grant policies order queued requests by, left empty under first come first served
+    private int[] priorityClassOfEachTask; // Indexed by task ID, only ever read from
+    private int[] remainingNeedAtStep; // Units requested from a step to the task's end, indexed by step ID
+
+    // Ended tasks containers
+    private ArrayList<Task> terminatedTasksContainer;
+    private ArrayList<Task> abortedTasksContainer;
+
+    // The state every run starts from
+    private SimulationCheckpoint initialState;
+
+    // The current run's metrics, along with the scratch space each cycle's sample is taken into
+    private SimulationMetrics metrics;
+    private int[] unitsInUseThisCycle; // Indexed by resource ID
+    private int[] queueLengthsThisCycle; // Indexed by resource ID
+
+    // Where every run's events are logged, along with the current run's recorder
+    private EventLog eventLog;
+    private int eventLogInputIndex;
+    private EventRecorder events;
+
+    /**
+     * Simulation engine constructor, giving the engine its own tasks and resources to run the shared program against
+     * @param program The parsed input, which is only ever read from
+     * @param out The stream this engine's output table and verbose messages are written to
+     * @param options The trace level, victim policy and safety check mode this engine runs with
+     */
+    public SimulationEngine(StepProgram program, PrintStream out, SimulationOptions options)
+    {
+        this.program = program;
+        this.out = out;
+        this.victimPolicy = options.getVictimPolicy();
+        this.isParallelSafetyCheck = options.isParallelSafetyCheck();
+        this.isCollectingMetrics = options.isCollectingMetrics();
+        this.grantPolicy = options.getGrantPolicy();
+        this.priorityClassOfEachTask = options.getPriorityClassOfEachTask();
+
+        // Fixed per level up front, so a disabled message costs a single branch and never builds its String
+        this.isSummaryMode = options.getTraceLevel() >= TraceLevel.SUMMARY;
+        this.isVerboseMode = options.getTraceLevel() >= TraceLevel.VERBOSE;
+        this.isDebugMode = options.getTraceLevel() >= TraceLevel.DEBUG;
+
+        // Container creation
+        int numberOfResources = program.getNumberOfResources();
+        taskContainer = new ArrayList<>();
+        for (int i = 0; i < program.getNumberOfTasks(); ++i)
+            taskContainer.add(new Task(i, 0, 0, 0, 0, 0, new int[numberOfResources]));
+        int[] resourceTotals = new int[numberOfResources];
+        for (int i = 0; i < numberOfResources; ++i)
+            resourceTotals[i] = program.getResourceTotal(i);
+        resourceTable = new ResourceTable(taskContainer, resourceTotals);
+
+        // Each task starts at its first step
+        currentStepOfEachTask = new int[taskContainer.size()];
+        for (int i = 0; i < taskContainer.size(); ++i)
+            currentStepOfEachTask[i] = program.getFirstStep(i);
+
+        // Waiting and ended tasks containers
+        waitQueueOfEachResource = new ArrayList<>();
+        Comparator<Task> grantOrder = createGrantOrder();
+        for (int i = 0; i < numberOfResources; ++i)
+            waitQueueOfEachResource.add((grantOrder == null) ? new ArrayDeque<>() : new TreeSet<>(grantOrder));
+        waitForGraph = new WaitForGraph(taskContainer, resourceTable);
+        timeBlockedAt = new int[taskContainer.size()];
+        blockedTasks = new ArrayList<>();
+        computingTasks = new PriorityQueue<>(Comparator.comparingInt(Task::getReadyTime));
+        terminatedTasksContainer = new ArrayList<>();
+        abortedTasksContainer = new ArrayList<>();
+        unitsInUseThisCycle = new int[numberOfResources];
+        queueLengthsThisCycle = new int[numberOfResources];
+
+        // Every run starts from here, restoring it is all it takes to reset between runs
+        initialState = createCheckpoint();
+    } // End of the simulation engine constructor
+
+    public void setCollectingMetrics(boolean isCollectingMetrics) {
+        this.isCollectingMetrics = isCollectingMetrics;
+    }
+
+    public void setEventLog(EventLog eventLog, int inputIndex) {
+        this.eventLog = eventLog;
+        this.eventLogInputIndex = inputIndex;
+        this.isLoggingEvents = eventLog != null;
+    }
+
+    /***** Application Methods *****/
+    /**
+     *  [Application Method] Wrapper method to call all simulation rounds
+     * @param version 0 is opportunistic resource manager, 1 is for banker's algorithm
+     * @return The totals of the run, its output is left to whoever owns this engine's stream
+     * @throws InvalidInputException If the input drives the simulation into an invalid state
+     */
+    public SimulationResult simulationWrapper(int version) throws InvalidInputException
+    {
+        if (isCollectingMetrics)
+            metrics = new SimulationMetrics(version, resourceTable.getTotals().clone(), taskContainer.size());
+        if (isLoggingEvents)
+            events = new EventRecorder(eventLog, eventLogInputIndex, version);
+
+        switch (version)
+        {
+            case 0:
+                // Opportunistic resource manager
+                simulateORM();
+                break;
+            case 1:
+                // Banker's algorithm resource manager
+                simulateBankers();
+                break;
+            default:
+                throw new InvalidInputException(
+                        "Error: simulation wrapper has called an invalid manager algorithm");
+        }
+        SimulationResult result = printOutput(version);
+        if (isCollectingMetrics)
+        {
+            metrics.recordEnd(currentCycleTime);
+            for (Task currentTask : taskContainer)
+                metrics.recordTask(currentTask.getTaskID(), currentTask.getStatus() == 4,
+                        currentTask.getStopTime() - currentTask.getStartTime(), currentTask.getWaitTime());
+            result.setMetrics(metrics);
+        }
+        if (isLoggingEvents)
+            events.flush();
+        restoreCheckpoint(initialState);
+        return result;
+    } // End of the simulation wrapper method
+
+    /**
+     * [Application Method] Simulates the opportunistic resource manager, which grants any request that fits in what
+     * is currently available
+     */
+    private void simulateORM() throws InvalidInputException
+    {
+        int numberOfTasks = taskContainer.size();
+        boolean[] hasActedThisCycle = new boolean[numberOfTasks];
+
+        while (terminatedTasksContainer.size() + abortedTasksContainer.size() != numberOfTasks)
+        {
+            Arrays.fill(hasActedThisCycle, false);
+            resourcesChangedThisCycle = false;
+            requestBlockedThisCycle = false;
+
+            // Blocked requests are retried first, only on the resources freed since they last failed
+            startOfCycleResourceFreeing(hasActedThisCycle);
+
+            // Runs the next step of every other task, in task order
+            for (Task task : taskContainer)
+            {
+                int taskID = task.getTaskID();
+                if ((hasActedThisCycle[taskID]) || (task.getStatus() >= 2)
+                        || (task.getReadyTime() > currentCycleTime))
+                    continue;
+
+                int currentStep = currentStepOfEachTask[taskID];
+                if (ormStep(currentStep, task))
+                    currentStepOfEachTask[taskID] = program.getNextStep(currentStep);
+                else
+                {
+                    // Queues the request behind any others waiting on the same resource
+                    timeBlockedAt[taskID] = currentCycleTime;
+                    waitQueueOfEachResource.get(program.getReferencedResource(currentStep)).add(task);
+                    waitForGraph.addWaitingTask(task, program.getReferencedResource(currentStep),
+                            program.getNumberOfResourcesUtilised(currentStep));
+                    ++numberOfQueuedRequests;
+                    requestBlockedThisCycle = true;
+                    if (isCollectingMetrics)
+                        metrics.recordBlockedRequest();
+                }
+            }
+
+            // A deadlock can only form when a request blocks
+            if (requestBlockedThisCycle)
+                resolveDeadlock();
+            if (isCollectingMetrics)
+                recordORMCycleMetrics();
+            advanceClock(numberOfTasks - (terminatedTasksContainer.size() + abortedTasksContainer.size()));
+        }
+    } // End of the simulate ORM method
+
+    private void startOfCycleResourceFreeing(boolean[] hasActedThisCycle)
+    {
+        // Deals with any resources to be freed at the start of the cycle, skipping straight to them
+        for (int resourceID = resourceTable.nextResourceToBeFreed(0); resourceID >= 0;
+             resourceID = resourceTable.nextResourceToBeFreed(resourceID + 1))
+        {
+            resourceTable.freeUnitsToBeFreed(resourceID);
+            grantWaitingRequests(resourceID, hasActedThisCycle);
+        }
+    } // End of the start of cycle resource freeing method
+
+    /**
+     * Grants the requests waiting on a resource that has just been freed, in grant policy order. Availability
+     * only grows when units are freed, so a request that failed cannot succeed until its own resource is freed
+     * @param resourceID The resource that was freed
+     * @param hasActedThisCycle Marks each task granted here, so it does not also run its next step this cycle
+     */
+    private void grantWaitingRequests(int resourceID, boolean[] hasActedThisCycle)
+    {
+        Collection<Task> waitQueue = waitQueueOfEachResource.get(resourceID);
+        for (Iterator<Task> waitIterator = waitQueue.iterator();
+             (waitIterator.hasNext()) && (resourceTable.getAvailable(resourceID) > 0);)
+        {
+            Task task = waitIterator.next();
+            int taskID = task.getTaskID();
+            if (amountRequestedBy(task) > resourceTable.getAvailable(resourceID))
+                continue;
+
+            // The request fits, so it leaves the graph before its holdings grow and is granted
+            waitForGraph.removeWaitingTask(task);
+            ormRequest(currentStepOfEachTask[taskID], task);
+
+            // The task waited every cycle from the one it blocked in up to this one
+            waitIterator.remove();
+            --numberOfQueuedRequests;
+            task.setStatus(1);
+            task.setWaitTime(task.getWaitTime() + currentCycleTime - timeBlockedAt[taskID]);
+            currentStepOfEachTask[taskID] = program.getNextStep(currentStepOfEachTask[taskID]);
+            hasActedThisCycle[taskID] = true;
+        }
+    } // End of the grant waiting requests method
+
+    /**
+     * Runs a single step for the opportunistic resource manager
+     * @param currentStep The step to be run
+     * @param task The task the step belongs to
+     * @return true if the task should move on to its next step, false if its request is now blocked
+     */
+    private boolean ormStep(int currentStep, Task task) throws InvalidInputException
+    {
+        int outputTaskNumber = task.getTaskID() + 1;
+        int amount = program.getNumberOfResourcesUtilised(currentStep);
+
+        switch (program.getStepType(currentStep))
+        {
+            case 0:
+            {
+                // Case 0: initiate, the ORM ignores claims
+                if (task.getStatus() == 0)
+                    task.setStartTime(currentCycleTime);
+                task.setStatus(1);
+
+                if (isVerboseMode)
+                {
+                    out.println("For step #" + currentStep + ": Task " + outputTaskNumber + " initially claims " +
+                            amount + " of resource " + program.getReferencedResource(currentStep) + " at time: " +
+                            currentCycleTime);
+                }
+                return true;
+            } // End of case 0: initiate
+            case 1:
+            {
+                // Case 1: request, blocking the task if there are not enough units available
+                if (ormRequest(currentStep, task))
+                    return true;
+
+                task.setStatus(2);
+                if (isLoggingEvents)
+                    events.record(currentCycleTime, EventLog.BLOCK, task.getTaskID(),
+                            program.getReferencedResource(currentStep), amount);
+                if (isVerboseMode)
+                {
+                    out.println("For step #" + currentStep + ": Task " + outputTaskNumber +
+                            " unsuccessfully requested " + amount + " of resource " +
+                            program.getReferencedResource(currentStep) + " at time: " + currentCycleTime);
+                }
+                return false;
+            } // End of case 1: request
+            case 2:
+            {
+                // Case 2: compute, keeping only this task busy
+                computeTask(task, program.getComputeTime(currentStep));
+
+                if (isVerboseMode)
+                {
+                    out.println("For step #" + currentStep + ": Task " + outputTaskNumber + " is computing for " +
+                            program.getComputeTime(currentStep) + " at time: " + currentCycleTime);
+                }
+                return true;
+            } // End of case 2: compute
+            case 3:
+            {
+                // Case 3: release, units are available from the next cycle
+                int resourceID = program.getReferencedResource(currentStep);
+                if (task.getResourcesInUse()[resourceID] < amount)
+                    throw new InvalidInputException("Error: Task " + outputTaskNumber + " released more of resource " +
+                            (resourceID + 1) + " than it was allocated");
+
+                resourceTable.release(task, resourceID, amount);
+                resourcesChangedThisCycle = true;
+                if (isLoggingEvents)
+                    events.record(currentCycleTime, EventLog.RELEASE, task.getTaskID(), resourceID, amount);
+
+                if (isVerboseMode)
+                {
+                    out.println("For step #" + currentStep + ": Task " + outputTaskNumber + " successfully released " +
+                            amount + " of resource " + resourceID + " at time: " + currentCycleTime +
+                            " which is available at time: " + (currentCycleTime + 1));
+                }
+                return true;
+            } // End of case 3: release
+            case 4:
+            {
+                // Case 4: terminate, anything still held is available from the next cycle
+                task.setStopTime(currentCycleTime);
+                task.setStatus(3);
+                terminatedTasksContainer.add(task);
+                releaseAllTaskResources(task);
+
+                if (isVerboseMode)
+                {
+                    out.println("For step #" + currentStep + ": Task " + outputTaskNumber + " terminated at time: " +
+                            currentCycleTime);
+                }
+                return true;
+            } // End of case 4: terminate
+            default:
+                // Action is none of the above
+                throw new InvalidInputException("Error: Invalid action was requested in ORM");
+        }
+    } // End of the ORM step method
+
+    /**
+     * Attempts to grant a request step out of the units currently available
+     * @return true if the request was granted
+     */
+    private boolean ormRequest(int currentStep, Task task)
+    {
+        int resourceID = program.getReferencedResource(currentStep);
+        int amountRequested = program.getNumberOfResourcesUtilised(currentStep);
+        if (!resourceTable.tryAllocate(task, resourceID, amountRequested))
+            return false;
+
+        resourcesChangedThisCycle = true;
+        if (isCollectingMetrics)
+            recordGrantMetrics(task, resourceID);
+        if (isLoggingEvents)
+            events.record(currentCycleTime, EventLog.GRANT, task.getTaskID(), resourceID, amountRequested);
+
+        if (isVerboseMode)
+        {
+            out.println("For step #" + currentStep + ": Task " + (task.getTaskID() + 1) +
+                    " successfully requested " + amountRequested + " of resource " + resourceID +
+                    " at time: " + currentCycleTime);
+        }
+        return true;
+    } // End of the ORM request method
+
+    /**
+     * Moves everything a task holds onto the units to be freed at the start of the next cycle, only touching the
+     * resources it holds
+     */
+    private void releaseAllTaskResources(Task task)
+    {
+        if (isLoggingEvents)
+        {
+            int[] heldResources = resourceTable.getHeldResources(task);
+            for (int i = 0; i < resourceTable.getNumberOfHeldResources(task); ++i)
+                events.record(currentCycleTime, EventLog.RELEASE, task.getTaskID(), heldResources[i],
+                        task.getResourcesInUse()[heldResources[i]]);
+        }
+        if (resourceTable.releaseAll(task) > 0)
+            resourcesChangedThisCycle = true;
+    } // End of the release task resources method
+
+    private void abortTask(Task taskToBeAborted)
+    {
+        taskToBeAborted.setStatus(4);
+        taskToBeAborted.setStopTime(currentCycleTime);
+        abortedTasksContainer.add(taskToBeAborted);
+        if (isLoggingEvents)
+            events.record(currentCycleTime, EventLog.ABORT, taskToBeAborted.getTaskID(), EventLog.NONE, 0);
+        int currentStep = currentStepOfEachTask[taskToBeAborted.getTaskID()];
+        if (waitQueueOfEachResource.get(program.getReferencedResource(currentStep)).remove(taskToBeAborted))
+            --numberOfQueuedRequests;
+        waitForGraph.removeWaitingTask(taskToBeAborted);
+        releaseAllTaskResources(taskToBeAborted);
+    } // End of the abort task method
+
+    /**
+     * Aborts deadlocked tasks one at a time, picked by the victim policy, until the rest can all run again. The
+     * wait-for graph is kept up to date as requests block and are granted, so only the blocked tasks are touched
+     * here. Each victim's units are handed to the graph and its reduction carried on from where it stopped, so the
+     * whole abort set is found in a single pass over the graph, and the deadlocked tasks only ever shrink
+     */
+    private void resolveDeadlock()
+    {
+        if (numberOfQueuedRequests == 0)
+            return;
+
+        waitForGraph.startReduction();
+        waitForGraph.reduce();
+        ArrayList<Task> deadlockedTasks = waitForGraph.getDeadlockedTasks();
+        if ((isVerboseMode) && (!deadlockedTasks.isEmpty()))
+            printDeadlock(deadlockedTasks);
+        if ((isCollectingMetrics) && (!deadlockedTasks.isEmpty()))
+            metrics.recordDeadlock();
+        if ((isLoggingEvents) && (!deadlockedTasks.isEmpty()))
+            events.record(currentCycleTime, EventLog.DEADLOCK, EventLog.NONE, EventLog.NONE, deadlockedTasks.size());
+
+        while (!deadlockedTasks.isEmpty())
+        {
+            Task victim = chooseVictim(deadlockedTasks);
+            waitForGraph.removeTask(victim);
+            abortTask(victim);
+            if (isCollectingMetrics)
+                metrics.recordAbort();
+            if (isVerboseMode)
+            {
+                int outputTask = victim.getTaskID() + 1;
+                out.println("Task #" + outputTask + ": has been aborted at time: " + currentCycleTime);
+            }
+            waitForGraph.reduce();
+            deadlockedTasks.removeIf(task -> waitForGraph.isReduced(task.getTaskID()));
+        }
+    } // End of the resolve deadlock method
+
+    /**
+     * Picks the deadlocked task with the lowest cost under the victim policy, ties going to the lowest task ID
+     * @param deadlockedTasks The tasks still deadlocked, in task order
+     * @return The task to be aborted next
+     */
+    private Task chooseVictim(ArrayList<Task> deadlockedTasks)
+    {
+        Task victim = deadlockedTasks.get(0);
+        if (victimPolicy == VictimPolicy.LOWEST_ID)
+            return victim;
+
+        long lowestCost = Long.MAX_VALUE;
+        for (Task candidate : deadlockedTasks)
+        {
+            long cost = victimCost(candidate);
+            if (cost < lowestCost)
+            {
+                lowestCost = cost;
+                victim = candidate;
+            }
+        }
+        return victim;
+    } // End of the choose victim method
+
+    /**
+     * [Helper Method] Finds what aborting a deadlocked task would cost under the victim policy, lower is better. Only
+     * looks at the resources the task holds
+     */
+    private long victimCost(Task candidate)
+    {
+        int[] resourcesInUse = candidate.getResourcesInUse();
+        int[] heldResources = resourceTable.getHeldResources(candidate);
+        long unitsHeld = 0;
+        for (int i = 0; i < resourceTable.getNumberOfHeldResources(candidate); ++i)
+            unitsHeld += resourcesInUse[heldResources[i]];
+
+        switch (victimPolicy)
+        {
+            case VictimPolicy.FEWEST_HELD:
+                return unitsHeld;
+            case VictimPolicy.LEAST_PROGRESS:
+                // Cycles spent running, its wait for the current request has not been added yet
+                return timeBlockedAt[candidate.getTaskID()] - candidate.getStartTime() - candidate.getWaitTime();
+            case VictimPolicy.MOST_UNBLOCKED:
+                // Greedy, the most other deadlocked requests its units would let through, then the most units freed.
+                // Only looks a single victim ahead, so it does not always find the smallest abort set
+                long numberOfUnblockedRequests = waitForGraph.countUnblockedBy(candidate);
+                return -((numberOfUnblockedRequests << 32) + unitsHeld);
+            default:
+                return 0;
+        }
+    } // End of the victim cost method
+
+    /**
+     * Prints each deadlocked task's request, along with the deadlocked tasks holding the resource it waits on
+     */
+    private void printDeadlock(ArrayList<Task> deadlockedTasks)
+    {
+        out.println("Deadlock detected at time: " + currentCycleTime + " between " + deadlockedTasks.size() +
+                " tasks");
+        for (Task currentTask : deadlockedTasks)
+        {
+            int resourceID = program.getReferencedResource(currentStepOfEachTask[currentTask.getTaskID()]);
+            out.print("\tTask " + (currentTask.getTaskID() + 1) + " waits for " + amountRequestedBy(currentTask) +
+                    " of resource " + resourceID + " held by");
+            for (int holderID = resourceTable.nextHolder(resourceID, 0); holderID >= 0;
+                 holderID = resourceTable.nextHolder(resourceID, holderID + 1))
+            {
+                Task holder = taskContainer.get(holderID);
+                if (deadlockedTasks.contains(holder))
+                    out.print(" Task " + (holder.getTaskID() + 1) + " (" + holder.getResourcesInUse()[resourceID] + ")");
+            }
+            out.println();
+        }
+    } // End of the print deadlock method
+
+    /**
+     * [Application Method] Simulates the banker's algorithm resource manager
+     */
+    private void simulateBankers() throws InvalidInputException
+    {
+        int numberOfTasks = taskContainer.size();
+        BankersState state = new BankersState(numberOfTasks, resourceTable.getTotals());
+        state.setParallelSafetyCheck(isParallelSafetyCheck);
+
+        // Each task starts at its first step
+        int[] bankersStepPointers = new int[numberOfTasks];
+        for (int i = 0; i < numberOfTasks; ++i)
+            bankersStepPointers[i] = program.getFirstStep(i);
+
+        boolean[] hasActedThisCycle = new boolean[numberOfTasks];
+        int numberOfFinishedTasks = 0;
+
+        while (numberOfFinishedTasks != numberOfTasks)
+        {
+            Arrays.fill(hasActedThisCycle, false);
+            resourcesChangedThisCycle = false;
+
+            // Blocked requests are retried first, in the order they were blocked
+            for (Iterator<Task> blockedIterator = blockedTasks.iterator(); blockedIterator.hasNext();)
+            {
+                Task task = blockedIterator.next();
+                int taskID = task.getTaskID();
+                hasActedThisCycle[taskID] = true;
+                if (bankersRequest(state, bankersStepPointers[taskID]))
+                {
+                    task.setStatus(1);
+                    bankersStepPointers[taskID] = program.getNextStep(bankersStepPointers[taskID]);
+                    blockedIterator.remove();
+                }
+                else
+                    task.setWaitTime(task.getWaitTime() + 1);
+            }
+
+            // Runs the next step of every other task, in task order
+            for (Task task : taskContainer)
+            {
+                int taskID = task.getTaskID();
+                if ((hasActedThisCycle[taskID]) || (task.getStatus() == 3) || (task.getStatus() == 4)
+                        || (task.getReadyTime() > currentCycleTime))
+                    continue;
+
+                int currentStep = bankersStepPointers[taskID];
+                if (bankersStep(state, currentStep))
+                    bankersStepPointers[taskID] = program.getNextStep(currentStep);
+                else if (task.getStatus() == 2)
+                {
+                    task.setWaitTime(task.getWaitTime() + 1);
+                    blockedTasks.add(task);
+                    timeBlockedAt[taskID] = currentCycleTime;
+                    if (isCollectingMetrics)
+                        metrics.recordBlockedRequest();
+                }
+
+                if ((task.getStatus() == 3) || (task.getStatus() == 4))
+                    ++numberOfFinishedTasks;
+            }
+
+            // Anything released this cycle is available from the next one
+            if (isCollectingMetrics)
+                recordBankersCycleMetrics(state, bankersStepPointers);
+            state.freePendingResources();
+            advanceClock(numberOfTasks - numberOfFinishedTasks);
+        }
+
+        if (isCollectingMetrics)
+        {
+            SafetyVerdictCache safetyVerdicts = state.getSafetyVerdicts();
+            metrics.setSafetyChecks(safetyVerdicts.getNumberOfHits() + safetyVerdicts.getNumberOfMisses(),
+                    safetyVerdicts.getNumberOfMisses());
+        }
+        if (isDebugMode)
+        {
+            SafetyVerdictCache safetyVerdicts = state.getSafetyVerdicts();
+            out.println("Safety check cache: " + safetyVerdicts.getNumberOfHits() + " hits, " +
+                    safetyVerdicts.getNumberOfMisses() + " misses, " + safetyVerdicts.size() + " states kept");
+        }
+    } // End of the simulate banker's method
+
+    /**
+     * Runs a single step for the banker's algorithm resource manager
+     * @param state The banker's matrices
+     * @param currentStep The step to be run
+     * @return true if the task should move on to its next step
+     */
+    private boolean bankersStep(BankersState state, int currentStep)
+            throws InvalidInputException
+    {
+        Task task = taskContainer.get(program.getReferencedTaskID(currentStep));
+        int taskID = task.getTaskID();
+        int outputTaskNumber = taskID + 1;
+        int amount = program.getNumberOfResourcesUtilised(currentStep);
+
+        switch (program.getStepType(currentStep))
+        {
+            case 0:
+            {
+                // Case 0: initiate, aborting the task if it claims more than exists
+                int resourceID = program.getReferencedResource(currentStep);
+                if (task.getStatus() == 0)
+                    task.setStartTime(currentCycleTime);
+                task.setStatus(1);
+
+                if (amount > resourceTable.getTotal(resourceID))
+                {
+                    if (isSummaryMode)
+                    {
+                        out.println("Banker's aborts task " + outputTaskNumber + " before run begins: claim for " +
+                                "resource " + (resourceID + 1) + " (" + amount + ") exceeds number " +
+                                "of units present (" + resourceTable.getTotal(resourceID) + ")");
+                    }
+                    bankersAbort(state, task);
+                    return false;
+                }
+                state.setClaim(taskID, resourceID, amount);
+
+                if (isVerboseMode)
+                {
+                    out.println("For step #" + currentStep + ": Task " + outputTaskNumber +
+                            " initially claims " + amount + " of resource " + resourceID +
+                            " at time: " + currentCycleTime);
+                }
+                return true;
+            } // End of case 0: initiate
+            case 1:
+            {
+                // Case 1: request, aborting the task if it asks for more than its claim
+                int resourceID = program.getReferencedResource(currentStep);
+                if (state.getAllocation(taskID, resourceID) + amount > state.getClaim(taskID, resourceID))
+                {
+                    int unitsFreed = state.getAllocation(taskID, resourceID);
+                    bankersAbort(state, task);
+                    if (isSummaryMode)
+                    {
+                        out.println("During cycle " + currentCycleTime + "-" + (currentCycleTime + 1) +
+                                " of Banker's algorithm: Task " + outputTaskNumber + "'s request exceeds its " +
+                                "claim; aborted; " + unitsFreed + " units available next cycle");
+                    }
+                    return false;
+                }
+                if (bankersRequest(state, currentStep))
+                    return true;
+
+                task.setStatus(2);
+                if (isLoggingEvents)
+                    events.record(currentCycleTime, EventLog.BLOCK, taskID, resourceID, amount);
+                if (isVerboseMode)
+                {
+                    out.println("For step #" + currentStep + ": Task " + outputTaskNumber +
+                            " could not safely be granted " + amount + " of resource " + resourceID +
+                            " at time: " + currentCycleTime);
+                }
+                return false;
+            } // End of case 1: request
+            case 2:
+            {
+                // Case 2: compute, keeping only this task busy
+                int computeTime = program.getComputeTime(currentStep);
+                computeTask(task, computeTime);
+
+                if (isVerboseMode)
+                {
+                    out.println("For step #" + currentStep + ": Task " + outputTaskNumber +
+                            " is computing for " + computeTime + " at time: " + currentCycleTime);
+                }
+                return true;
+            } // End of case 2: compute
+            case 3:
+            {
+                // Case 3: release, units are available from the next cycle
+                int resourceID = program.getReferencedResource(currentStep);
+                state.release(taskID, resourceID, amount);
+                resourcesChangedThisCycle = true;
+                if (isLoggingEvents)
+                    events.record(currentCycleTime, EventLog.RELEASE, taskID, resourceID, amount);
+
+                if (isVerboseMode)
+                {
+                    out.println("For step #" + currentStep + ": Task " + outputTaskNumber +
+                            " successfully released " + amount + " of resource " + resourceID +
+                            " at time: " + currentCycleTime + " which is available at time: " +
+                            (currentCycleTime + 1));
+                }
+                return true;
+            } // End of case 3: release
+            case 4:
+            {
+                // Case 4: terminate
+                task.setStopTime(currentCycleTime);
+                task.setStatus(3);
+                if (isLoggingEvents)
+                    recordBankersReleaseEvents(state, taskID);
+                state.retire(taskID);
+                resourcesChangedThisCycle = true;
+
+                if (isVerboseMode)
+                {
+                    out.println("For step #" + currentStep + ": Task " + outputTaskNumber +
+                            " terminated at time: " + currentCycleTime);
+                }
+                return true;
+            } // End of case 4: terminate
+            default:
+                // Action is none of the above
+                throw new InvalidInputException("Error: Invalid action was requested in Banker's");
+        }
+    } // End of the banker's step method
+
+    /**
+     * Attempts to grant a request step, only succeeding if the resulting state is safe
+     * @return true if the request was granted
+     */
+    private boolean bankersRequest(BankersState state, int currentStep)
+    {
+        Task task = taskContainer.get(program.getReferencedTaskID(currentStep));
+        int resourceID = program.getReferencedResource(currentStep);
+        int amountRequested = program.getNumberOfResourcesUtilised(currentStep);
+
+        if (!state.tryGrant(task.getTaskID(), resourceID, amountRequested))
+            return false;
+        resourcesChangedThisCycle = true;
+        if (isCollectingMetrics)
+            recordGrantMetrics(task, resourceID);
+        if (isLoggingEvents)
+            events.record(currentCycleTime, EventLog.GRANT, task.getTaskID(), resourceID,
+                    amountRequested);
+
+        if (isVerboseMode)
+        {
+            out.println("For step #" + currentStep + ": Task " + (task.getTaskID() + 1) +
+                    " successfully requested " + amountRequested + " of resource " + resourceID +
+                    " at time: " + currentCycleTime);
+        }
+        return true;
+    } // End of the banker's request method
+
+    /**
+     * Aborts a task under the banker's algorithm, its resources are available from the next cycle
+     */
+    private void bankersAbort(BankersState state, Task task)
+    {
+        task.setStatus(4);
+        task.setStopTime(currentCycleTime);
+        if (isLoggingEvents)
+        {
+            events.record(currentCycleTime, EventLog.ABORT, task.getTaskID(), EventLog.NONE, 0);
+            recordBankersReleaseEvents(state, task.getTaskID());
+        }
+        state.retire(task.getTaskID());
+        resourcesChangedThisCycle = true;
+        if (isCollectingMetrics)
+            metrics.recordAbort();
+    } // End of the banker's abort method
+
+    /**
+     * Logs a release of everything a task still holds under the banker's algorithm, before it is retired
+     */
+    private void recordBankersReleaseEvents(BankersState state, int taskID)
+    {
+        for (int resourceID = 0; resourceID < resourceTable.getNumberOfResources(); ++resourceID)
+        {
+            int amountHeld = state.getAllocation(taskID, resourceID);
+            if (amountHeld > 0)
+                events.record(currentCycleTime, EventLog.RELEASE, taskID, resourceID, amountHeld);
+        }
+    } // End of the record banker's release events method
+
+    /***** Helper Methods *****/
+    /**
+     * [Helper Method] Takes a checkpoint of everything a run changes, which can be restored later to discard every
+     * cycle run since
+     * @return The checkpoint of the engine as it is now
+     */
+    public SimulationCheckpoint createCheckpoint()
+    {
+        int numberOfResources = resourceTable.getNumberOfResources();
+        SimulationCheckpoint checkpoint = new SimulationCheckpoint(taskContainer.size(), numberOfResources);
+        checkpoint.setCurrentCycleTime(currentCycleTime);
+
+        for (Task currentTask : taskContainer)
+        {
+            int taskID = currentTask.getTaskID();
+            checkpoint.getStatus()[taskID] = currentTask.getStatus();
+            checkpoint.getStartTime()[taskID] = currentTask.getStartTime();
+            checkpoint.getStopTime()[taskID] = currentTask.getStopTime();
+            checkpoint.getWaitTime()[taskID] = currentTask.getWaitTime();
+            checkpoint.getReadyTime()[taskID] = currentTask.getReadyTime();
+            System.arraycopy(currentTask.getResourcesInUse(), 0, checkpoint.getResourcesInUse(),
+                    taskID * numberOfResources, numberOfResources);
+        }
+        System.arraycopy(currentStepOfEachTask, 0, checkpoint.getCurrentStep(), 0, currentStepOfEachTask.length);
+        System.arraycopy(timeBlockedAt, 0, checkpoint.getTimeBlockedAt(), 0, timeBlockedAt.length);
+
+        for (int resourceID = 0; resourceID < numberOfResources; ++resourceID)
+        {
+            checkpoint.getResourcesAvailable()[resourceID] = resourceTable.getAvailable(resourceID);
+            checkpoint.getResourcesToBeFreed()[resourceID] = resourceTable.getUnitsToBeFreed(resourceID);
+            checkpoint.getWaitQueueOfEachResource()[resourceID] = toTaskIDs(waitQueueOfEachResource.get(resourceID));
+        }
+        checkpoint.setBlockedTasks(toTaskIDs(blockedTasks));
+        checkpoint.setComputingTasks(toTaskIDs(computingTasks));
+        checkpoint.setTerminatedTasks(toTaskIDs(terminatedTasksContainer));
+        checkpoint.setAbortedTasks(toTaskIDs(abortedTasksContainer));
+        return checkpoint;
+    } // End of the create checkpoint method
+
+    /**
+     * [Helper Method] Puts the engine back the way it was when a checkpoint was taken. The checkpoint itself is left
+     * untouched, so it can be restored any number of times
+     * @param checkpoint A checkpoint taken by this engine
+     */
+    public void restoreCheckpoint(SimulationCheckpoint checkpoint)
+    {
+        int numberOfResources = resourceTable.getNumberOfResources();
+        currentCycleTime = checkpoint.getCurrentCycleTime();
+
+        for (Task currentTask : taskContainer)
+        {
+            int taskID = currentTask.getTaskID();
+            currentTask.setStatus(checkpoint.getStatus()[taskID]);
+            currentTask.setStartTime(checkpoint.getStartTime()[taskID]);
+            currentTask.setStopTime(checkpoint.getStopTime()[taskID]);
+            currentTask.setWaitTime(checkpoint.getWaitTime()[taskID]);
+            currentTask.setReadyTime(checkpoint.getReadyTime()[taskID]);
+            System.arraycopy(checkpoint.getResourcesInUse(), taskID * numberOfResources,
+                    currentTask.getResourcesInUse(), 0, numberOfResources);
+        }
+        System.arraycopy(checkpoint.getCurrentStep(), 0, currentStepOfEachTask, 0, currentStepOfEachTask.length);
+        System.arraycopy(checkpoint.getTimeBlockedAt(), 0, timeBlockedAt, 0, timeBlockedAt.length);
+
+        numberOfQueuedRequests = 0;
+        for (int resourceID = 0; resourceID < numberOfResources; ++resourceID)
+        {
+            toTasks(checkpoint.getWaitQueueOfEachResource()[resourceID], waitQueueOfEachResource.get(resourceID));
+            numberOfQueuedRequests += waitQueueOfEachResource.get(resourceID).size();
+        }
+        resourceTable.restore(checkpoint.getResourcesAvailable(), checkpoint.getResourcesToBeFreed());
+        waitForGraph.clear();
+        for (Collection<Task> waitQueue : waitQueueOfEachResource)
+        {
+            for (Task waitingTask : waitQueue)
+                waitForGraph.addWaitingTask(waitingTask, program.getReferencedResource(
+                        currentStepOfEachTask[waitingTask.getTaskID()]), amountRequestedBy(waitingTask));
+        }
+        toTasks(checkpoint.getBlockedTasks(), blockedTasks);
+        toTasks(checkpoint.getComputingTasks(), computingTasks);
+        toTasks(checkpoint.getTerminatedTasks(), terminatedTasksContainer);
+        toTasks(checkpoint.getAbortedTasks(), abortedTasksContainer);
+
+        // Checkpoints are only taken between cycles, when neither flag means anything
+        resourcesChangedThisCycle = false;
+        requestBlockedThisCycle = false;
+    } // End of the restore checkpoint method
+
+    /**
+     * [Helper Method] Lists the IDs of the tasks in a container, in the container's order
+     */
+    private int[] toTaskIDs(Collection<Task> tasks)
+    {
+        int[] taskIDs = new int[tasks.size()];
+        int i = 0;
+        for (Task currentTask : tasks)
+            taskIDs[i++] = currentTask.getTaskID();
+        return taskIDs;
+    } // End of the to task IDs method
+
+    /**
+     * [Helper Method] Refills a container with the tasks whose IDs are listed, in the listed order
+     */
+    private void toTasks(int[] taskIDs, Collection<Task> tasks)
+    {
+        tasks.clear();
+        for (int taskID : taskIDs)
+            tasks.add(taskContainer.get(taskID));
+    } // End of the to tasks method
+
+    /**
+     * [Helper Method] Records a granted request, along with how long it waited if it had been blocked
+     */
+    private void recordGrantMetrics(Task task, int resourceID)
+    {
+        int cyclesWaited = (task.getStatus() == 2) ? currentCycleTime - timeBlockedAt[task.getTaskID()] : 0;
+        metrics.recordGrant(resourceID, cyclesWaited);
+    } // End of the record grant metrics method
+
+    /**
+     * [Helper Method] Samples the ORM's units in use and queue lengths at the end of a cycle, units released this
+     * cycle are still counted as they are not available until the next one
+     */
+    private void recordORMCycleMetrics()
+    {
+        for (int resourceID = 0; resourceID < resourceTable.getNumberOfResources(); ++resourceID)
+        {
+            unitsInUseThisCycle[resourceID] = resourceTable.getTotal(resourceID)
+                    - resourceTable.getAvailable(resourceID);
+            queueLengthsThisCycle[resourceID] = waitQueueOfEachResource.get(resourceID).size();
+        }
+        metrics.recordCycle(currentCycleTime, unitsInUseThisCycle, queueLengthsThisCycle);
+    } // End of the record ORM cycle metrics method
+
+    /**
+     * [Helper Method] Samples the banker's units in use and queue lengths at the end of a cycle, before the units
+     * released this cycle are made available
+     */
+    private void recordBankersCycleMetrics(BankersState state, int[] bankersStepPointers)
+    {
+        Arrays.fill(queueLengthsThisCycle, 0);
+        for (Task blockedTask : blockedTasks)
+            ++queueLengthsThisCycle[program.getReferencedResource(bankersStepPointers[blockedTask.getTaskID()])];
+        for (int resourceID = 0; resourceID < resourceTable.getNumberOfResources(); ++resourceID)
+            unitsInUseThisCycle[resourceID] = resourceTable.getTotal(resourceID) - state.getAvailable(resourceID);
+        metrics.recordCycle(currentCycleTime, unitsInUseThisCycle, queueLengthsThisCycle);
+    } // End of the record banker's cycle metrics method
+
+    /**
+     * [Helper Method] Finds the number of units a blocked task is waiting for
+     */
+    private int amountRequestedBy(Task task)
+    {
+        return program.getNumberOfResourcesUtilised(currentStepOfEachTask[task.getTaskID()]);
+    } // End of the amount requested by method
+
+    /**
+     * [Helper Method] Builds the order the grant policy serves a resource's queued requests in. Each request's place
+     * only depends on its task's current step and the cycle it blocked in, neither of which changes while it is
+     * queued, so the queue stays sorted and a restored checkpoint sorts back into the same order
+     * @return The order, or null for first come first served, which a plain queue keeps by itself
+     */
+    private Comparator<Task> createGrantOrder()
+    {
+        if (grantPolicy == GrantPolicy.FCFS)
+            return null;
+
+        // Without a priority map every task is in the same class
+        if (priorityClassOfEachTask == null)
+            priorityClassOfEachTask = new int[taskContainer.size()];
+
+        // Next steps always come later in the program, so a backwards pass sees each step's successor first
+        remainingNeedAtStep = new int[program.getNumberOfSteps()];
+        for (int stepID = program.getNumberOfSteps() - 1; stepID >= 0; --stepID)
+        {
+            int nextStep = program.getNextStep(stepID);
+            remainingNeedAtStep[stepID] = ((program.getStepType(stepID) == 1)
+                    ? program.getNumberOfResourcesUtilised(stepID) : 0)
+                    + ((nextStep == StepProgram.NO_STEP) ? 0 : remainingNeedAtStep[nextStep]);
+        }
+
+        Comparator<Task> policyOrder;
+        switch (grantPolicy)
+        {
+            case GrantPolicy.PRIORITY:
+                policyOrder = Comparator.comparingInt(task -> priorityClassOfEachTask[task.getTaskID()]);
+                break;
+            case GrantPolicy.SHORTEST_NEED:
+                policyOrder = Comparator.comparingInt(
+                        task -> remainingNeedAtStep[currentStepOfEachTask[task.getTaskID()]]);
+                break;
+            default:
+                // Aging, a request that has waited w cycles competes as if it needed w units less
+                policyOrder = Comparator.comparingLong(task -> (long) remainingNeedAtStep[
+                        currentStepOfEachTask[task.getTaskID()]] + timeBlockedAt[task.getTaskID()]);
+                break;
+        }
+        return policyOrder.thenComparingInt(task -> timeBlockedAt[task.getTaskID()])
+                .thenComparingInt(Task::getTaskID);
+    } // End of the create grant order method
+
+    /**
+     * [Helper Method] Starts a task computing, it does not act again until the compute time has passed
+     * @param task The task that is computing
+     * @param computeTime The number of cycles it computes for, including the current one
+     */
+    private void computeTask(Task task, int computeTime)
+    {
+        task.setReadyTime(currentCycleTime + computeTime);
+        if (computeTime > 1)
+            computingTasks.add(task);
+    } // End of the compute task method
+
+    /**
+     * [Helper Method] Moves the clock on to the next cycle in which anything can change. When every task still alive
+     * is either computing or blocked on a request that has already failed against the current resources, the
+     * cycles until the next task finishes computing are skipped, with the blocked tasks waiting through them
+     * @param numberOfAliveTasks The number of tasks that have neither terminated nor been aborted
+     */
+    private void advanceClock(int numberOfAliveTasks)
+    {
+        ++currentCycleTime;
+        while ((!computingTasks.isEmpty()) && (computingTasks.peek().getReadyTime() <= currentCycleTime))
+            computingTasks.poll();
+
+        int numberOfReadyTasks = numberOfAliveTasks - numberOfQueuedRequests - blockedTasks.size()
+                - computingTasks.size();
+        if ((numberOfReadyTasks > 0) || (resourcesChangedThisCycle) || (computingTasks.isEmpty()))
+            return;
+
+        // Nothing can change until the next task finishes computing, queued ORM requests count their wait when granted
+        int nextReadyTime = computingTasks.peek().getReadyTime();
+        int numberOfSkippedCycles = nextReadyTime - currentCycleTime;
+        for (Task blockedTask : blockedTasks)
+            blockedTask.setWaitTime(blockedTask.getWaitTime() + numberOfSkippedCycles);
+        if (isDebugMode)
+            out.println("Skipping " + numberOfSkippedCycles + " idle cycles from time " + currentCycleTime);
+
+        currentCycleTime = nextReadyTime;
+        while ((!computingTasks.isEmpty()) && (computingTasks.peek().getReadyTime() <= currentCycleTime))
+            computingTasks.poll();
+    } // End of the advance clock method
+
+    /**
+     * [Helper Method] Prints the output of the simulation round
+     * @return The totals that were printed
+     */
+    private SimulationResult printOutput(int version) throws InvalidInputException
+    {
+        int numberOfTasks = taskContainer.size();
+        boolean[] isTaskAborted = new boolean[numberOfTasks];
+        int[] turnaroundTimes = new int[numberOfTasks];
+        int[] waitTimes = new int[numberOfTasks];
+        for (Task currentTask : taskContainer)
+        {
+            int taskID = currentTask.getTaskID();
+            isTaskAborted[taskID] = currentTask.getStatus() == 4;
+            turnaroundTimes[taskID] = currentTask.getStopTime() - currentTask.getStartTime();
+            waitTimes[taskID] = currentTask.getWaitTime();
+        }
+        return printOutputTable(out, version, isTaskAborted, turnaroundTimes, waitTimes);
+    } // End of the print output method
+
+    /**
+     * [Helper Method] Prints a manager's output table from each task's outcome
+     * @param out The stream the table is written to
+     * @param version 0 is opportunistic resource manager, 1 is for banker's algorithm
+     * @param isTaskAborted Whether each task was aborted, indexed by task ID
+     * @param turnaroundTimes Each task's turnaround time, indexed by task ID
+     * @param waitTimes Each task's wait time, indexed by task ID
+     * @return The totals that were printed
+     * @throws InvalidInputException If the version is not a manager
+     */
+    public static SimulationResult printOutputTable(PrintStream out, int version, boolean[] isTaskAborted,
+                                                    int[] turnaroundTimes, int[] waitTimes)
+            throws InvalidInputException
+    {
+        switch (version)
+        {
+            case 0:
+                out.println("\t\tFIFO");
+                break;
+            case 1:
+                out.println("\t\tBANKER'S\n");
+                break;
+            default:
+                throw new InvalidInputException("Error: Invalid run number given during print out!");
+        }
+
+        int totalWaitTime = 0;
+        int numberOfAbortedTasks = 0;
+        // Iterates through the tasks and prints out the per task metadata
+        long globalTimeRun = 0;
+        for (int taskID = 0; taskID < isTaskAborted.length; ++taskID)
+        {
+            // Task was aborted early, prints abort message
+            if (isTaskAborted[taskID])
+            {
+                int externalPrintID = taskID + 1;
+                out.println("\tTask " + externalPrintID + "  \taborted");
+                ++numberOfAbortedTasks;
+            }
+            else
+            {
+                // Amount of time taken to complete the task (includes blocked time)
+                int turnAround = turnaroundTimes[taskID];
+                globalTimeRun += turnAround;
+                totalWaitTime += waitTimes[taskID];
+
+                // Percentage of time spent waiting
+                double percentageOfTimeSpentWaiting = ((double) waitTimes[taskID] /
+                        ((double) turnAround))*(100.000000);
+                out.printf("\tTask %d  \t%d\t%d\t%6f%%\n", taskID + 1,
+                        turnAround, waitTimes[taskID], percentageOfTimeSpentWaiting);
+            }
+        }
+
+        // Calculates the total percentage of time spent waiting
+        double globalPercentageOfTimeSpentWaiting = ((double)totalWaitTime/((double) globalTimeRun))*(100.000000);
+
+        // Prints out the global totals
+        out.printf("\tTotal\t\t%d\t%d\t%6f%%\n", globalTimeRun, totalWaitTime,
+                globalPercentageOfTimeSpentWaiting);
+        return new SimulationResult(version, globalTimeRun, totalWaitTime, isTaskAborted.length,
+                numberOfAbortedTasks, null);
+    } // End of the print output table method
+} // End of the simulation engine class
@@ -0,0 +1,238 @@
+/**
+ * Simulation metrics object class, the counters and histograms a single manager's run collects beyond its output
+ * table. Resource usage and queue lengths are sampled once at the end of every cycle that runs and weighted by how
+ * long they held, so cycles the clock skips cost nothing, and everything else is counted as it happens
+ */
+public class SimulationMetrics
+{
+    // Run attributes
+    private int version; // 0 = ORM, 1 = Banker's
+    private int numberOfCycles;
+    private long numberOfGrants;
+    private long numberOfBlockedRequests;
+    private long numberOfDeadlocks;
+    private long numberOfAborts;
+    private long numberOfSafetyChecks; // Banker's checks past the fast path, cached or not
+    private long numberOfSafetyChecksRun; // Banker's checks that ran the full algorithm
+
+    // Resource columns, indexed by resource ID
+    private int[] resourceCapacities;
+    private long[] unitCyclesInUse;
+    private int[] peakUnitsInUse;
+    private long[] queueLengthCycles;
+    private int[] peakQueueLength;
+    private Histogram[] timeToGrant;
+
+    // The latest sample, held until the next one
+    private int lastSampleTime;
+    private int[] lastUnitsInUse;
+    private int[] lastQueueLengths;
+
+    // Task columns, indexed by task ID, filled in once the run has finished
+    private boolean[] isTaskAborted;
+    private int[] taskTurnaroundTime;
+    private int[] taskWaitTime;
+
+    /**
+     * Simulation metrics object constructor, starting with every counter at 0
+     * @param version The manager being run, 0 is the ORM, 1 is banker's algorithm
+     * @param resourceCapacities The total units of each resource type
+     * @param numberOfTasks The number of tasks in the program
+     */
+    public SimulationMetrics(int version, int[] resourceCapacities, int numberOfTasks)
+    {
+        int numberOfResources = resourceCapacities.length;
+        this.version = version;
+        this.resourceCapacities = resourceCapacities;
+        this.unitCyclesInUse = new long[numberOfResources];
+        this.peakUnitsInUse = new int[numberOfResources];
+        this.queueLengthCycles = new long[numberOfResources];
+        this.peakQueueLength = new int[numberOfResources];
+        this.timeToGrant = new Histogram[numberOfResources];
+        for (int r = 0; r < numberOfResources; ++r)
+            timeToGrant[r] = new Histogram();
+        this.lastUnitsInUse = new int[numberOfResources];
+        this.lastQueueLengths = new int[numberOfResources];
+        this.isTaskAborted = new boolean[numberOfTasks];
+        this.taskTurnaroundTime = new int[numberOfTasks];
+        this.taskWaitTime = new int[numberOfTasks];
+    } // End of the simulation metrics constructor
+
+    public int getVersion() {
+        return version;
+    }
+
+    public int getNumberOfCycles() {
+        return numberOfCycles;
+    }
+
+    public long getNumberOfGrants() {
+        return numberOfGrants;
+    }
+
+    public long getNumberOfBlockedRequests() {
+        return numberOfBlockedRequests;
+    }
+
+    public long getNumberOfDeadlocks() {
+        return numberOfDeadlocks;
+    }
+
+    public long getNumberOfAborts() {
+        return numberOfAborts;
+    }
+
+    public long getNumberOfSafetyChecks() {
+        return numberOfSafetyChecks;
+    }
+
+    public long getNumberOfSafetyChecksRun() {
+        return numberOfSafetyChecksRun;
+    }
+
+    public int getNumberOfResources() {
+        return resourceCapacities.length;
+    }
+
+    public int getResourceCapacity(int resourceID) {
+        return resourceCapacities[resourceID];
+    }
+
+    public int getPeakUnitsInUse(int resourceID) {
+        return peakUnitsInUse[resourceID];
+    }
+
+    public int getPeakQueueLength(int resourceID) {
+        return peakQueueLength[resourceID];
+    }
+
+    public Histogram getTimeToGrant(int resourceID) {
+        return timeToGrant[resourceID];
+    }
+
+    public int getNumberOfTasks() {
+        return isTaskAborted.length;
+    }
+
+    public boolean isTaskAborted(int taskID) {
+        return isTaskAborted[taskID];
+    }
+
+    public int getTaskTurnaroundTime(int taskID) {
+        return taskTurnaroundTime[taskID];
+    }
+
+    public int getTaskWaitTime(int taskID) {
+        return taskWaitTime[taskID];
+    }
+
+    /**
+     * Finds the share of a resource's units in use, averaged over every cycle of the run
+     */
+    public double getUtilisation(int resourceID)
+    {
+        if ((numberOfCycles == 0) || (resourceCapacities[resourceID] == 0))
+            return 0;
+        return (double) unitCyclesInUse[resourceID] / ((double) resourceCapacities[resourceID] * numberOfCycles);
+    } // End of the get utilisation method
+
+    /**
+     * Finds the number of requests waiting on a resource, averaged over every cycle of the run
+     */
+    public double getMeanQueueLength(int resourceID)
+    {
+        return (numberOfCycles == 0) ? 0 : (double) queueLengthCycles[resourceID] / numberOfCycles;
+    } // End of the get mean queue length method
+
+    /**
+     * Finds the number of tasks that finished per cycle
+     */
+    public double getThroughput()
+    {
+        long numberOfFinishedTasks = 0;
+        for (boolean isAborted : isTaskAborted)
+        {
+            if (!isAborted)
+                ++numberOfFinishedTasks;
+        }
+        return (numberOfCycles == 0) ? 0 : (double) numberOfFinishedTasks / numberOfCycles;
+    } // End of the get throughput method
+
+    /***** Recording Methods *****/
+    /**
+     * Records the end of a cycle, the sample holding until the next cycle that is recorded
+     * @param cycle The cycle that has just run
+     * @param unitsInUse The units of each resource held or waiting to be freed
+     * @param queueLengths The number of requests waiting on each resource
+     */
+    public void recordCycle(int cycle, int[] unitsInUse, int[] queueLengths)
+    {
+        accumulateLastSample(cycle);
+        for (int r = 0; r < resourceCapacities.length; ++r)
+        {
+            lastUnitsInUse[r] = unitsInUse[r];
+            lastQueueLengths[r] = queueLengths[r];
+            peakUnitsInUse[r] = Math.max(peakUnitsInUse[r], unitsInUse[r]);
+            peakQueueLength[r] = Math.max(peakQueueLength[r], queueLengths[r]);
+        }
+    } // End of the record cycle method
+
+    /**
+     * Records the end of the run, once the clock has moved past the last cycle
+     * @param endTime The first cycle after the run
+     */
+    public void recordEnd(int endTime)
+    {
+        accumulateLastSample(endTime);
+        numberOfCycles = endTime;
+    } // End of the record end method
+
+    /**
+     * Records a granted request
+     * @param resourceID The resource that was granted
+     * @param cyclesWaited The number of cycles the request waited for, 0 if it was granted straight away
+     */
+    public void recordGrant(int resourceID, int cyclesWaited)
+    {
+        ++numberOfGrants;
+        timeToGrant[resourceID].record(cyclesWaited);
+    } // End of the record grant method
+
+    public void recordBlockedRequest() {
+        ++numberOfBlockedRequests;
+    }
+
+    public void recordDeadlock() {
+        ++numberOfDeadlocks;
+    }
+
+    public void recordAbort() {
+        ++numberOfAborts;
+    }
+
+    public void setSafetyChecks(long numberOfSafetyChecks, long numberOfSafetyChecksRun) {
+        this.numberOfSafetyChecks = numberOfSafetyChecks;
+        this.numberOfSafetyChecksRun = numberOfSafetyChecksRun;
+    }
+
+    /**
+     * Records how a task's run ended
+     */
+    public void recordTask(int taskID, boolean isAborted, int turnaroundTime, int waitTime)
+    {
+        isTaskAborted[taskID] = isAborted;
+        taskTurnaroundTime[taskID] = turnaroundTime;
+        taskWaitTime[taskID] = waitTime;
+    } // End of the record task method
+
+    private void accumulateLastSample(int time)
+    {
+        int cyclesHeld = time - lastSampleTime;
+        for (int r = 0; r < resourceCapacities.length; ++r)
+        {
+            unitCyclesInUse[r] += (long) lastUnitsInUse[r] * cyclesHeld;
+            queueLengthCycles[r] += (long) lastQueueLengths[r] * cyclesHeld;
+        }
+        lastSampleTime = time;
+    } // End of the accumulate last sample method
+} // End of the simulation metrics class
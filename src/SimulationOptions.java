@@ -0,0 +1,97 @@
+/**
+ * Simulation options object class, the commandline settings every engine of a run is created with
+ */
+public class SimulationOptions
+{
+    // Option attributes
+    private int traceLevel; // See TraceLevel
+    private int victimPolicy; // See VictimPolicy
+    private boolean isParallelSafetyCheck;
+    private String metricsPath; // Where the metrics of every run are exported, null to not collect them
+    private String eventLogPath; // Where the events of every run are logged, null to not log them
+    private int grantPolicy; // See GrantPolicy
+    private int[] priorityClassOfEachTask; // Indexed by task ID, null to put every task in the same class
+
+    /**
+     * Simulation options object constructor
+     * @param traceLevel How much diagnostic output is printed alongside the output table
+     * @param victimPolicy How the ORM picks which deadlocked task to abort
+     * @param isParallelSafetyCheck Whether the banker's algorithm splits wide safety checks across every core
+     * @param metricsPath The file every run's metrics are exported to, as CSV or JSON, or null for none
+     * @param eventLogPath The file every run's events are logged to, or null for none
+     */
+    public SimulationOptions(int traceLevel, int victimPolicy, boolean isParallelSafetyCheck, String metricsPath,
+                             String eventLogPath)
+    {
+        this.traceLevel = traceLevel;
+        this.victimPolicy = victimPolicy;
+        this.isParallelSafetyCheck = isParallelSafetyCheck;
+        this.metricsPath = metricsPath;
+        this.eventLogPath = eventLogPath;
+        this.grantPolicy = GrantPolicy.FCFS; // Only the ORM has a choice, it is set on its own
+    } // End of the simulation options constructor
+
+    public int getTraceLevel() {
+        return traceLevel;
+    }
+
+    public void setTraceLevel(int traceLevel) {
+        this.traceLevel = traceLevel;
+    }
+
+    public int getVictimPolicy() {
+        return victimPolicy;
+    }
+
+    public void setVictimPolicy(int victimPolicy) {
+        this.victimPolicy = victimPolicy;
+    }
+
+    public boolean isParallelSafetyCheck() {
+        return isParallelSafetyCheck;
+    }
+
+    public void setParallelSafetyCheck(boolean isParallelSafetyCheck) {
+        this.isParallelSafetyCheck = isParallelSafetyCheck;
+    }
+
+    public String getMetricsPath() {
+        return metricsPath;
+    }
+
+    public void setMetricsPath(String metricsPath) {
+        this.metricsPath = metricsPath;
+    }
+
+    public boolean isCollectingMetrics() {
+        return metricsPath != null;
+    }
+
+    public String getEventLogPath() {
+        return eventLogPath;
+    }
+
+    public void setEventLogPath(String eventLogPath) {
+        this.eventLogPath = eventLogPath;
+    }
+
+    public boolean isLoggingEvents() {
+        return eventLogPath != null;
+    }
+
+    public int getGrantPolicy() {
+        return grantPolicy;
+    }
+
+    public void setGrantPolicy(int grantPolicy) {
+        this.grantPolicy = grantPolicy;
+    }
+
+    public int[] getPriorityClassOfEachTask() {
+        return priorityClassOfEachTask;
+    }
+
+    public void setPriorityClassOfEachTask(int[] priorityClassOfEachTask) {
+        this.priorityClassOfEachTask = priorityClassOfEachTask;
+    }
+} // End of the simulation options class
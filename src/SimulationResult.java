@@ -0,0 +1,90 @@
+/**
+ * Simulation result object class, the totals of a single manager's run over a single program
+ */
+public class SimulationResult
+{
+    // Result attributes
+    private int version; // 0 = ORM, 1 = Banker's
+    private long totalTime;
+    private long totalWaitTime;
+    private int numberOfTasks;
+    private int numberOfAbortedTasks;
+    private String output;
+    private SimulationMetrics metrics; // Only collected when asked for, null otherwise
+
+    /**
+     * Simulation result object constructor
+     * @param version The manager that was run, 0 is the ORM, 1 is banker's algorithm
+     * @param totalTime The sum of every finished task's turnaround time
+     * @param totalWaitTime The sum of every finished task's wait time
+     * @param numberOfTasks The number of tasks in the program
+     * @param numberOfAbortedTasks The number of tasks that were aborted
+     * @param output The table printed for this run
+     */
+    public SimulationResult(int version, long totalTime, long totalWaitTime, int numberOfTasks,
+                            int numberOfAbortedTasks, String output)
+    {
+        setVersion(version);
+        setTotalTime(totalTime);
+        setTotalWaitTime(totalWaitTime);
+        setNumberOfTasks(numberOfTasks);
+        setNumberOfAbortedTasks(numberOfAbortedTasks);
+        setOutput(output);
+    } // End of the simulation result constructor
+
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
+    public long getTotalTime() {
+        return totalTime;
+    }
+
+    public void setTotalTime(long totalTime) {
+        this.totalTime = totalTime;
+    }
+
+    public long getTotalWaitTime() {
+        return totalWaitTime;
+    }
+
+    public void setTotalWaitTime(long totalWaitTime) {
+        this.totalWaitTime = totalWaitTime;
+    }
+
+    public int getNumberOfTasks() {
+        return numberOfTasks;
+    }
+
+    public void setNumberOfTasks(int numberOfTasks) {
+        this.numberOfTasks = numberOfTasks;
+    }
+
+    public int getNumberOfAbortedTasks() {
+        return numberOfAbortedTasks;
+    }
+
+    public void setNumberOfAbortedTasks(int numberOfAbortedTasks) {
+        this.numberOfAbortedTasks = numberOfAbortedTasks;
+    }
+
+    public String getOutput() {
+        return output;
+    }
+
+    public void setOutput(String output) {
+        this.output = output;
+    }
+
+    public SimulationMetrics getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(SimulationMetrics metrics) {
+        this.metrics = metrics;
+    }
+} // End of the simulation result class
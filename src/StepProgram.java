@@ -0,0 +1,183 @@
+import java.util.Arrays;
+
+/**
+ * Step program object class, holding a parsed input file as a table of parallel step columns indexed by step ID,
+ * with each task's steps chained through the next and previous step columns. A program is never modified once it
+ * has been read, so a single copy can be shared by any number of simulation engines running at the same time
+ */
+public class StepProgram
+{
+    // Marks the lack of a next or previous step
+    public static final int NO_STEP = -1;
+
+    // Program attributes
+    private int numberOfTasks;
+    private int[] resourceTotals;
+    private int numberOfGroups;
+    private boolean isSequentialTask;
+
+    // Step columns, indexed by step ID
+    private int numberOfSteps;
+    private byte[] stepType; // 0 = initiate, 1 = request, 2 = compute, 3 = release, 4 = terminate
+    private int[] group;
+    private int[] referencedTask;
+    private int[] referencedResource; // Resource ID, or the number of cycles for compute
+    private int[] numberOfResourcesUtilised;
+    private int[] nextStep;
+
+    // The step each task starts at, indexed by task ID
+    private int[] firstStepOfEachTask;
+
+    /**
+     * Step program object constructor, the columns may be longer than the number of steps and are trimmed here
+     * @param numberOfTasks The number of tasks in the program
+     * @param resourceTotals The total amount of each resource type, indexed by resource ID
+     * @param numberOfSteps The number of steps in the program
+     * @param stepType Each step's type, in input order
+     * @param group Each step's blank line separated group
+     * @param referencedTask Each step's task ID
+     * @param referencedResource Each step's resource ID, or number of cycles for compute
+     * @param numberOfResourcesUtilised Each step's number of units
+     * @param numberOfGroups The number of blank line separated groups in the input
+     * @param isSequentialTask Whether the tasks in the input run one after another
+     */
+    public StepProgram(int numberOfTasks, int[] resourceTotals, int numberOfSteps, byte[] stepType, int[] group,
+                       int[] referencedTask, int[] referencedResource, int[] numberOfResourcesUtilised,
+                       int numberOfGroups, boolean isSequentialTask)
+    {
+        this.numberOfTasks = numberOfTasks;
+        this.resourceTotals = resourceTotals;
+        this.numberOfGroups = numberOfGroups;
+        this.isSequentialTask = isSequentialTask;
+        this.numberOfSteps = numberOfSteps;
+        this.stepType = Arrays.copyOf(stepType, numberOfSteps);
+        this.group = Arrays.copyOf(group, numberOfSteps);
+        this.referencedTask = Arrays.copyOf(referencedTask, numberOfSteps);
+        this.referencedResource = Arrays.copyOf(referencedResource, numberOfSteps);
+        this.numberOfResourcesUtilised = Arrays.copyOf(numberOfResourcesUtilised, numberOfSteps);
+        setNextSteps();
+    } // End of the step program constructor
+
+    /**
+     * Step program object constructor, sharing every step column of another program under different resource totals
+     */
+    private StepProgram(StepProgram steps, int[] resourceTotals)
+    {
+        this.numberOfTasks = steps.numberOfTasks;
+        this.resourceTotals = resourceTotals;
+        this.numberOfGroups = steps.numberOfGroups;
+        this.isSequentialTask = steps.isSequentialTask;
+        this.numberOfSteps = steps.numberOfSteps;
+        this.stepType = steps.stepType;
+        this.group = steps.group;
+        this.referencedTask = steps.referencedTask;
+        this.referencedResource = steps.referencedResource;
+        this.numberOfResourcesUtilised = steps.numberOfResourcesUtilised;
+        this.nextStep = steps.nextStep;
+        this.firstStepOfEachTask = steps.firstStepOfEachTask;
+    } // End of the shared step program constructor
+
+    /**
+     * Creates a program running the same steps against different resource totals, without copying any steps
+     * @param newResourceTotals The total amount of each resource type, indexed by resource ID
+     * @return The program with the new totals
+     */
+    public StepProgram withResourceTotals(int[] newResourceTotals)
+    {
+        return new StepProgram(this, newResourceTotals.clone());
+    } // End of the with resource totals method
+
+    public int getNumberOfTasks() {
+        return numberOfTasks;
+    }
+
+    public int getNumberOfResources() {
+        return resourceTotals.length;
+    }
+
+    public int getResourceTotal(int resourceID) {
+        return resourceTotals[resourceID];
+    }
+
+    public int getNumberOfGroups() {
+        return numberOfGroups;
+    }
+
+    public boolean isSequentialTask() {
+        return isSequentialTask;
+    }
+
+    public int getNumberOfSteps() {
+        return numberOfSteps;
+    }
+
+    public int getStepType(int stepID) {
+        return stepType[stepID];
+    }
+
+    public int getGroup(int stepID) {
+        return group[stepID];
+    }
+
+    public int getReferencedTaskID(int stepID) {
+        return referencedTask[stepID];
+    }
+
+    public int getReferencedResource(int stepID) {
+        return referencedResource[stepID];
+    }
+
+    public int getComputeTime(int stepID) {
+        return referencedResource[stepID]; // Compute steps keep their number of cycles in the resource column
+    }
+
+    public int getNumberOfResourcesUtilised(int stepID) {
+        return numberOfResourcesUtilised[stepID];
+    }
+
+    public int getNextStep(int stepID) {
+        return nextStep[stepID];
+    }
+
+    public int getFirstStep(int taskID) {
+        return firstStepOfEachTask[taskID];
+    }
+
+    /**
+     * Reads a program from an input file, either in the text input format or as a binary trace
+     * @param filePath The input file path, given as a String
+     * @return The parsed program
+     * @throws InvalidInputException If the file cannot be read or contains an invalid activity
+     */
+    public static StepProgram fromFile(String filePath) throws InvalidInputException
+    {
+        if (BinaryTrace.isBinaryTrace(filePath))
+            return BinaryTrace.read(filePath);
+        return InputParser.parse(filePath);
+    } // End of the from file method
+
+    /**
+     * Links each step to the next step of the same task in a single pass, remembering only the latest step seen for
+     * each task
+     */
+    private void setNextSteps()
+    {
+        nextStep = new int[numberOfSteps];
+        firstStepOfEachTask = new int[numberOfTasks];
+        int[] lastStepOfEachTask = new int[numberOfTasks];
+        Arrays.fill(firstStepOfEachTask, NO_STEP);
+        Arrays.fill(lastStepOfEachTask, NO_STEP);
+
+        for (int stepID = 0; stepID < numberOfSteps; ++stepID)
+        {
+            int taskID = referencedTask[stepID];
+            int lastStep = lastStepOfEachTask[taskID];
+            if (lastStep == NO_STEP)
+                firstStepOfEachTask[taskID] = stepID;
+            else
+                nextStep[lastStep] = stepID;
+            nextStep[stepID] = NO_STEP;
+            lastStepOfEachTask[taskID] = stepID;
+        }
+    } // End of the set next steps method
+} // End of the step program class
@@ -1,5 +1,3 @@
-import java.util.HashMap;
-
 /**
  * Task object class
  */
@@ -11,7 +9,8 @@ public class Task
     private int startTime;
     private int stopTime;
     private int waitTime;
-    private HashMap<Resource, Integer> resourcesInUse;
+    private int readyTime; // The first cycle this task can act in again, later than now while it is computing
+    private int[] resourcesInUse; // Units held of each resource, indexed by resource ID
 
     /**
      * Task object constructor
@@ -20,16 +19,18 @@ public class Task
      * @param startTime The start time for this task
      * @param stopTime The stop time for this task
      * @param waitTime The wait time for this task
-     * @param resourcesInUse The resources in use by this task currently
+     * @param readyTime The first cycle this task can act in
+     * @param resourcesInUse The units of each resource in use by this task currently, indexed by resource ID
      */
-    public Task (int taskID, int status, int startTime, int stopTime, int waitTime,
-                 HashMap<Resource, Integer> resourcesInUse)
+    public Task (int taskID, int status, int startTime, int stopTime, int waitTime, int readyTime,
+                 int[] resourcesInUse)
     {
         setTaskID(taskID);
         setStatus(status);
         setStartTime(startTime);
         setStopTime(stopTime);
         setWaitTime(waitTime);
+        setReadyTime(readyTime);
         setResourcesInUse(resourcesInUse);
     } // End of the task object constructor
 
@@ -73,11 +74,19 @@ public class Task
         this.waitTime = waitTime;
     }
 
-    public HashMap<Resource, Integer>  getResourcesInUse() {
+    public int getReadyTime() {
+        return readyTime;
+    }
+
+    public void setReadyTime(int readyTime) {
+        this.readyTime = readyTime;
+    }
+
+    public int[] getResourcesInUse() {
         return resourcesInUse;
     }
 
-    public void setResourcesInUse(HashMap<Resource, Integer> resourcesInUse) {
+    public void setResourcesInUse(int[] resourcesInUse) {
         this.resourcesInUse = resourcesInUse;
     }
 } // End of the task class
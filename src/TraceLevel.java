@@ -0,0 +1,26 @@
+/**
+ * Trace level class, the levels of diagnostic output a simulation can print. Each level includes everything
+ * printed by the levels below it, and the output tables are always printed
+ */
+public class TraceLevel
+{
+    // Trace levels
+    public static final int OFF = 0; // Only the output tables
+    public static final int SUMMARY = 1; // Tasks aborted by a manager
+    public static final int VERBOSE = 2; // The outcome of every step
+    public static final int DEBUG = 3; // Idle cycles skipped and the banker's safety check cache statistics
+
+    // Level names, indexed by level
+    private static final NameTable LEVEL_NAMES = new NameTable("trace level", "off", "summary", "verbose", "debug");
+
+    /**
+     * Reads a trace level from its name
+     * @param name The level's name, as given on the commandline
+     * @return The trace level
+     * @throws InvalidInputException If there is no level with that name
+     */
+    public static int fromName(String name) throws InvalidInputException
+    {
+        return LEVEL_NAMES.fromName(name);
+    } // End of the from name method
+} // End of the trace level class
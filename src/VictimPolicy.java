@@ -0,0 +1,33 @@
+/**
+ * Victim policy class, the ways the ORM can pick which deadlocked task to abort. Every policy picks a single victim
+ * at a time and breaks ties on the lowest task ID, so lowest ID on its own is the original behaviour
+ */
+public class VictimPolicy
+{
+    // Victim policies
+    public static final int LOWEST_ID = 0; // The lowest numbered deadlocked task
+    public static final int FEWEST_HELD = 1; // The task holding the fewest units, so the least is given back
+    public static final int LEAST_PROGRESS = 2; // The task that has spent the fewest cycles running
+    // The task whose units would unblock the most deadlocked requests. A greedy step towards the fewest victims,
+    // which can abort more tasks than the smallest abort set would
+    public static final int MOST_UNBLOCKED = 3;
+
+    // Policy names, indexed by policy
+    private static final NameTable POLICY_NAMES = new NameTable("victim policy", "lowest-id", "fewest-held",
+            "least-progress", "most-unblocked");
+
+    /**
+     * Reads a victim policy from its name
+     * @param name The policy's name, as given on the commandline
+     * @return The victim policy
+     * @throws InvalidInputException If there is no policy with that name
+     */
+    public static int fromName(String name) throws InvalidInputException
+    {
+        return POLICY_NAMES.fromName(name);
+    } // End of the from name method
+
+    public static String getName(int policy) {
+        return POLICY_NAMES.getName(policy);
+    }
+} // End of the victim policy class
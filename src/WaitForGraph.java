@@ -0,0 +1,291 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Wait-for graph object class, which blocked task waits on how much of which resource along with the units the
+ * blocked tasks hold. The engine keeps it up to date as requests block, are granted and are aborted, touching only
+ * the resources the task in question holds. Every unit not held by a blocked task is free, or will be once the task
+ * holding it finishes, so a reduction starts from that and grants each blocked request that fits in what would be
+ * free, freeing that task's holdings in turn. Whatever is left blocked only waits on other tasks that are left, so is
+ * deadlocked. Removing a task part way through carries on the same reduction, as what would be free only ever grows
+ */
+public class WaitForGraph
+{
+    // Marks a task that is not waiting on any resource
+    public static final int NO_REQUEST = -1;
+
+    // Graph attributes, kept up to date between reductions
+    private ArrayList<Task> taskContainer;
+    private ResourceTable resourceTable;
+    private int numberOfResources;
+    private int[] requestedResource; // Indexed by task ID
+    private int[] requestedAmount; // Indexed by task ID
+    private int[] unitsHeldByWaitingTasks; // Indexed by resource ID
+    private int[] waitingTaskIDs; // The first numberOfWaitingTasks are valid, in no particular order
+    private int[] positionOfEachWaitingTask; // Indexed by task ID, its place in waitingTaskIDs
+    private int numberOfWaitingTasks;
+
+    // Reduction state, rebuilt by each call to startReduction
+    private int[] work; // Units that would be free, indexed by resource ID
+    private boolean[] isReduced; // Indexed by task ID, set once a task has been granted its request or removed
+
+    // Each resource's waiting requests cheapest first, as (amount << 32 | taskID). A resource's requests start at
+    // waitersStart, those from nextWaiter up to waitersEnd have not been granted by the reduction yet
+    private long[] waiters;
+    private int[] waitersStart;
+    private int[] nextWaiter;
+    private int[] waitersEnd;
+
+    // Resources that have had units added since they were last checked
+    private int[] resourcesToCheck;
+    private boolean[] isWaitingToBeChecked;
+    private int numberOfResourcesToCheck;
+
+    /**
+     * Wait-for graph object constructor, no task is waiting to begin with
+     * @param taskContainer Every task, indexed by task ID
+     * @param resourceTable The units of each resource and what each task holds
+     */
+    public WaitForGraph(ArrayList<Task> taskContainer, ResourceTable resourceTable)
+    {
+        int numberOfTasks = taskContainer.size();
+        this.taskContainer = taskContainer;
+        this.resourceTable = resourceTable;
+        this.numberOfResources = resourceTable.getNumberOfResources();
+        this.requestedResource = new int[numberOfTasks];
+        Arrays.fill(requestedResource, NO_REQUEST);
+        this.requestedAmount = new int[numberOfTasks];
+        this.unitsHeldByWaitingTasks = new int[numberOfResources];
+        this.waitingTaskIDs = new int[numberOfTasks];
+        this.positionOfEachWaitingTask = new int[numberOfTasks];
+
+        this.work = new int[numberOfResources];
+        this.isReduced = new boolean[numberOfTasks];
+        this.waiters = new long[numberOfTasks];
+        this.waitersStart = new int[numberOfResources + 1];
+        this.nextWaiter = new int[numberOfResources];
+        this.waitersEnd = new int[numberOfResources];
+        this.resourcesToCheck = new int[numberOfResources];
+        this.isWaitingToBeChecked = new boolean[numberOfResources];
+    } // End of the wait-for graph constructor
+
+    public boolean isReduced(int taskID) {
+        return isReduced[taskID];
+    }
+
+    public int getNumberOfWaitingTasks() {
+        return numberOfWaitingTasks;
+    }
+
+    /**
+     * Adds the edge of a request that has just blocked, along with what its task holds
+     * @param task The blocked task
+     * @param resourceID The resource it waits on
+     * @param amount The units it waits for
+     */
+    public void addWaitingTask(Task task, int resourceID, int amount)
+    {
+        int taskID = task.getTaskID();
+        requestedResource[taskID] = resourceID;
+        requestedAmount[taskID] = amount;
+        positionOfEachWaitingTask[taskID] = numberOfWaitingTasks;
+        waitingTaskIDs[numberOfWaitingTasks++] = taskID;
+
+        int[] heldResources = resourceTable.getHeldResources(task);
+        int[] resourcesInUse = task.getResourcesInUse();
+        for (int i = 0; i < resourceTable.getNumberOfHeldResources(task); ++i)
+            unitsHeldByWaitingTasks[heldResources[i]] += resourcesInUse[heldResources[i]];
+    } // End of the add waiting task method
+
+    /**
+     * Removes the edge of a request that is no longer waiting. Has to be called before the task's holdings change,
+     * whether it is granted its request or aborted
+     * @param task The task that has stopped waiting
+     */
+    public void removeWaitingTask(Task task)
+    {
+        int taskID = task.getTaskID();
+        if (requestedResource[taskID] == NO_REQUEST)
+            return;
+        requestedResource[taskID] = NO_REQUEST;
+        int lastTaskID = waitingTaskIDs[--numberOfWaitingTasks];
+        waitingTaskIDs[positionOfEachWaitingTask[taskID]] = lastTaskID;
+        positionOfEachWaitingTask[lastTaskID] = positionOfEachWaitingTask[taskID];
+
+        int[] heldResources = resourceTable.getHeldResources(task);
+        int[] resourcesInUse = task.getResourcesInUse();
+        for (int i = 0; i < resourceTable.getNumberOfHeldResources(task); ++i)
+            unitsHeldByWaitingTasks[heldResources[i]] -= resourcesInUse[heldResources[i]];
+    } // End of the remove waiting task method
+
+    /**
+     * Removes every edge, leaving no task waiting
+     */
+    public void clear()
+    {
+        for (int i = 0; i < numberOfWaitingTasks; ++i)
+            requestedResource[waitingTaskIDs[i]] = NO_REQUEST;
+        numberOfWaitingTasks = 0;
+        Arrays.fill(unitsHeldByWaitingTasks, 0);
+    } // End of the clear method
+
+    /**
+     * Starts a reduction from the graph as it is now, every unit not held by a waiting task counting as free. Only
+     * the waiting tasks are touched, apart from a single pass over the resources
+     */
+    public void startReduction()
+    {
+        for (int resourceID = 0; resourceID < numberOfResources; ++resourceID)
+            work[resourceID] = resourceTable.getTotal(resourceID) - unitsHeldByWaitingTasks[resourceID];
+
+        // Groups the waiting requests by resource, then sorts each group by amount
+        Arrays.fill(waitersStart, 0);
+        for (int i = 0; i < numberOfWaitingTasks; ++i)
+        {
+            isReduced[waitingTaskIDs[i]] = false;
+            ++waitersStart[requestedResource[waitingTaskIDs[i]] + 1];
+        }
+        for (int resourceID = 0; resourceID < numberOfResources; ++resourceID)
+            waitersStart[resourceID + 1] += waitersStart[resourceID];
+        System.arraycopy(waitersStart, 0, nextWaiter, 0, numberOfResources);
+        for (int i = 0; i < numberOfWaitingTasks; ++i)
+        {
+            int taskID = waitingTaskIDs[i];
+            waiters[nextWaiter[requestedResource[taskID]]++] = ((long) requestedAmount[taskID] << 32) | taskID;
+        }
+        System.arraycopy(waitersStart, 0, nextWaiter, 0, numberOfResources);
+        System.arraycopy(waitersStart, 1, waitersEnd, 0, numberOfResources);
+
+        // Every resource with a request waiting on it is checked once to begin with
+        for (int resourceID = 0; resourceID < numberOfResources; ++resourceID)
+        {
+            if (waitersStart[resourceID + 1] == waitersStart[resourceID])
+                continue;
+            Arrays.sort(waiters, waitersStart[resourceID], waitersStart[resourceID + 1]);
+            markForChecking(resourceID);
+        }
+    } // End of the start reduction method
+
+    /**
+     * Grants every waiting request that fits in what would be free, rechecking a resource each time a reduced task
+     * gives some of it back
+     */
+    public void reduce()
+    {
+        while (numberOfResourcesToCheck > 0)
+        {
+            int resourceID = resourcesToCheck[--numberOfResourcesToCheck];
+            isWaitingToBeChecked[resourceID] = false;
+            int end = waitersEnd[resourceID];
+            while ((nextWaiter[resourceID] < end)
+                    && ((int) (waiters[nextWaiter[resourceID]] >>> 32) <= work[resourceID]))
+            {
+                int taskID = (int) waiters[nextWaiter[resourceID]++];
+                if (isReduced[taskID])
+                    continue;
+                isReduced[taskID] = true;
+                addHoldings(taskContainer.get(taskID));
+            }
+        }
+    } // End of the reduce method
+
+    /**
+     * Takes a task out of the reduction as if it had been aborted, what it holds would be free. Has to be called
+     * before the task's holdings are actually released
+     * @param task The task to be removed
+     */
+    public void removeTask(Task task)
+    {
+        int taskID = task.getTaskID();
+        if (isReduced[taskID])
+            return;
+        isReduced[taskID] = true;
+
+        // Drops its request from the ones still waiting, so those left are exactly the deadlocked requests
+        int resourceID = requestedResource[taskID];
+        int position = lowerBound(resourceID, ((long) requestedAmount[taskID] << 32) | taskID);
+        System.arraycopy(waiters, position + 1, waiters, position, waitersEnd[resourceID] - position - 1);
+        --waitersEnd[resourceID];
+        addHoldings(task);
+    } // End of the remove task method
+
+    /**
+     * Counts the deadlocked requests, other than its own, that a deadlocked task's units would let through if it was
+     * removed, only looking at the resources it holds
+     * @param task The deadlocked task
+     * @return The number of requests its units would let through
+     */
+    public int countUnblockedBy(Task task)
+    {
+        // Nothing left waiting fits in what is free after a reduction, so only the task's own units can help
+        int taskID = task.getTaskID();
+        int[] heldResources = resourceTable.getHeldResources(task);
+        int[] resourcesInUse = task.getResourcesInUse();
+        int numberOfUnblockedRequests = 0;
+        for (int i = 0; i < resourceTable.getNumberOfHeldResources(task); ++i)
+        {
+            int resourceID = heldResources[i];
+            int freeUnits = work[resourceID] + resourcesInUse[resourceID];
+            numberOfUnblockedRequests += lowerBound(resourceID, (long) (freeUnits + 1) << 32)
+                    - nextWaiter[resourceID];
+            if ((requestedResource[taskID] == resourceID) && (requestedAmount[taskID] <= freeUnits))
+                --numberOfUnblockedRequests;
+        }
+        return numberOfUnblockedRequests;
+    } // End of the count unblocked by method
+
+    /**
+     * Finds the waiting tasks that the reduction could not get past
+     * @return The deadlocked tasks in task order, empty if there is no deadlock
+     */
+    public ArrayList<Task> getDeadlockedTasks()
+    {
+        ArrayList<Task> deadlockedTasks = new ArrayList<>();
+        for (int i = 0; i < numberOfWaitingTasks; ++i)
+        {
+            if (!isReduced[waitingTaskIDs[i]])
+                deadlockedTasks.add(taskContainer.get(waitingTaskIDs[i]));
+        }
+        deadlockedTasks.sort(Comparator.comparingInt(Task::getTaskID));
+        return deadlockedTasks;
+    } // End of the get deadlocked tasks method
+
+    private void addHoldings(Task task)
+    {
+        int[] heldResources = resourceTable.getHeldResources(task);
+        int[] resourcesInUse = task.getResourcesInUse();
+        for (int i = 0; i < resourceTable.getNumberOfHeldResources(task); ++i)
+        {
+            int resourceID = heldResources[i];
+            work[resourceID] += resourcesInUse[resourceID];
+            markForChecking(resourceID);
+        }
+    } // End of the add holdings method
+
+    /**
+     * Finds the first of a resource's requests still waiting that is not below a key, by binary search
+     */
+    private int lowerBound(int resourceID, long key)
+    {
+        int low = nextWaiter[resourceID];
+        int high = waitersEnd[resourceID];
+        while (low < high)
+        {
+            int middle = (low + high) >>> 1;
+            if (waiters[middle] < key)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    } // End of the lower bound method
+
+    private void markForChecking(int resourceID)
+    {
+        if (isWaitingToBeChecked[resourceID])
+            return;
+        isWaitingToBeChecked[resourceID] = true;
+        resourcesToCheck[numberOfResourcesToCheck++] = resourceID;
+    } // End of the mark for checking method
+} // End of the wait-for graph class
@@ -0,0 +1,304 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Workload generator object class, writing synthetic input files in the text input format. Each task claims what
+ * it will need, then runs a number of rounds, each requesting one or more resources, computing while it holds them
+ * and releasing them all. Rounds take their resources in ascending resource order, which can never deadlock, unless
+ * the deadlock likelihood has them take the resources in a random order instead. Tasks are written one after
+ * another through a fixed size buffer, each one drawn twice from its own seed (once for its claims, once for its
+ * rounds), so the output can reach any size in constant memory
+ */
+public class WorkloadGenerator
+{
+    // Generator constants
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAXIMUM_LINE_LENGTH = 64;
+    private static final byte[][] ACTIVITY_NAMES = { // Indexed by step type
+            "initiate".getBytes(), "request".getBytes(), "compute".getBytes(),
+            "release".getBytes(), "terminate".getBytes()};
+
+    // Workload attributes
+    private int numberOfTasks;
+    private int[] resourceCapacities;
+    private int roundsPerTask;
+    private int maximumResourcesHeld;
+    private Distribution requestSize;
+    private Distribution computeTime;
+    private double deadlockLikelihood;
+    private long seed;
+
+    // Output state
+    private FileChannel channel;
+    private ByteBuffer buffer;
+    private long numberOfActivities;
+
+    /**
+     * Workload generator object constructor
+     * @param numberOfTasks The number of tasks to generate
+     * @param resourceCapacities The number of units of each resource type
+     * @param roundsPerTask The number of request, compute and release rounds each task runs
+     * @param maximumResourcesHeld The most resources a round holds at once
+     * @param requestSize The number of units each request asks for, capped at the resource's capacity
+     * @param computeTime The number of cycles each round computes for
+     * @param deadlockLikelihood The chance that a round takes its resources in a random order, between 0 and 1
+     * @param seed The seed every task's randomness is derived from
+     */
+    public WorkloadGenerator(int numberOfTasks, int[] resourceCapacities, int roundsPerTask,
+                             int maximumResourcesHeld, Distribution requestSize, Distribution computeTime,
+                             double deadlockLikelihood, long seed)
+    {
+        this.numberOfTasks = numberOfTasks;
+        this.resourceCapacities = resourceCapacities;
+        this.roundsPerTask = roundsPerTask;
+        this.maximumResourcesHeld = Math.min(maximumResourcesHeld, resourceCapacities.length);
+        this.requestSize = requestSize;
+        this.computeTime = computeTime;
+        this.deadlockLikelihood = deadlockLikelihood;
+        this.seed = seed;
+    } // End of the workload generator constructor
+
+    /**
+     * Reads a workload from its commandline flags, anything not given keeps its default
+     * @param flags The flags, of the form '--name=value'
+     * @return The generator for that workload
+     * @throws InvalidInputException If a flag is unknown or its value is not valid
+     */
+    public static WorkloadGenerator fromFlags(String[] flags) throws InvalidInputException
+    {
+        int numberOfTasks = 100;
+        int numberOfResources = 3;
+        int[] capacities = {10};
+        int roundsPerTask = 5;
+        int maximumResourcesHeld = 2;
+        Distribution requestSize = Distribution.fromSpec("uniform:1:4");
+        Distribution computeTime = Distribution.fromSpec("uniform:1:3");
+        double deadlockLikelihood = 0.5;
+        long seed = 1;
+
+        for (String flag : flags)
+        {
+            int equalsIndex = flag.indexOf('=');
+            String name = (equalsIndex < 0) ? flag : flag.substring(0, equalsIndex);
+            String value = (equalsIndex < 0) ? "" : flag.substring(equalsIndex + 1);
+            try
+            {
+                switch (name)
+                {
+                    case "--tasks":
+                        numberOfTasks = Integer.parseInt(value);
+                        break;
+                    case "--resources":
+                        numberOfResources = Integer.parseInt(value);
+                        break;
+                    case "--capacity":
+                        capacities = Arrays.stream(value.split(",")).mapToInt(Integer::parseInt).toArray();
+                        break;
+                    case "--rounds":
+                        roundsPerTask = Integer.parseInt(value);
+                        break;
+                    case "--holds":
+                        maximumResourcesHeld = Integer.parseInt(value);
+                        break;
+                    case "--request-size":
+                        requestSize = Distribution.fromSpec(value);
+                        break;
+                    case "--compute":
+                        computeTime = Distribution.fromSpec(value);
+                        break;
+                    case "--deadlock":
+                        deadlockLikelihood = Double.parseDouble(value);
+                        break;
+                    case "--seed":
+                        seed = Long.parseLong(value);
+                        break;
+                    default:
+                        throw new InvalidInputException("Error: Unknown generator flag '" + flag + "'");
+                }
+            }
+            catch (NumberFormatException e)
+            {
+                throw new InvalidInputException("Error: Invalid value in generator flag '" + flag + "'");
+            }
+        }
+
+        // Sanity check: the workload has to describe at least one task using at least one real resource
+        if ((numberOfTasks < 1) || (numberOfResources < 1) || (roundsPerTask < 0) || (maximumResourcesHeld < 1))
+            throw new InvalidInputException("Error: The number of tasks, resources and resources held must be " +
+                    "positive, and the number of rounds cannot be negative");
+        if ((capacities.length != 1) && (capacities.length != numberOfResources))
+            throw new InvalidInputException("Error: Give either a single capacity or one for each of the " +
+                    numberOfResources + " resources");
+        if (Arrays.stream(capacities).anyMatch(capacity -> capacity < 1))
+            throw new InvalidInputException("Error: Every resource capacity must be positive");
+        if ((deadlockLikelihood < 0) || (deadlockLikelihood > 1))
+            throw new InvalidInputException("Error: The deadlock likelihood must be between 0 and 1");
+
+        int[] resourceCapacities = new int[numberOfResources];
+        for (int r = 0; r < numberOfResources; ++r)
+            resourceCapacities[r] = capacities[(capacities.length == 1) ? 0 : r];
+        return new WorkloadGenerator(numberOfTasks, resourceCapacities, roundsPerTask, maximumResourcesHeld,
+                requestSize, computeTime, deadlockLikelihood, seed);
+    } // End of the from flags method
+
+    /**
+     * Writes the workload out as a text input file
+     * @param filePath The file to be written
+     * @return The number of activities written
+     * @throws InvalidInputException If the file cannot be written
+     */
+    public long write(String filePath) throws InvalidInputException
+    {
+        try (FileChannel outputChannel = FileChannel.open(Paths.get(filePath), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            channel = outputChannel;
+            buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            numberOfActivities = 0;
+
+            putInt(numberOfTasks);
+            putByte(' ');
+            putInt(resourceCapacities.length);
+            for (int capacity : resourceCapacities)
+            {
+                putByte(' ');
+                putInt(capacity);
+            }
+            putByte('\n');
+
+            int[] claims = new int[resourceCapacities.length];
+            for (int taskID = 0; taskID < numberOfTasks; ++taskID)
+            {
+                putByte('\n');
+                writeTask(taskID, claims);
+            }
+            drain();
+            return numberOfActivities;
+        }
+        catch (IOException e)
+        {
+            throw new InvalidInputException("Error: Could not write the generated workload to " + filePath);
+        }
+    } // End of the write method
+
+    /**
+     * Writes a single task, first finding its claims by drawing its rounds without writing them, then drawing the
+     * same rounds again from the same seed to write them out
+     */
+    private void writeTask(int taskID, int[] claims) throws IOException
+    {
+        Arrays.fill(claims, 0);
+        drawRounds(taskID, claims, false);
+
+        boolean hasInitiated = false;
+        for (int r = 0; r < claims.length; ++r)
+        {
+            if (claims[r] == 0)
+                continue;
+            putActivity(0, taskID + 1, r + 1, claims[r]);
+            hasInitiated = true;
+        }
+        if (!hasInitiated)
+            putActivity(0, taskID + 1, 1, 0);
+
+        drawRounds(taskID, claims, true);
+        putActivity(4, taskID + 1, 0, 0);
+    } // End of the write task method
+
+    /**
+     * Draws every round of a task from its own seed
+     * @param claims Raised to the largest request of each resource
+     * @param isWriting Whether the rounds are written out, or only used to find the claims
+     */
+    private void drawRounds(int taskID, int[] claims, boolean isWriting) throws IOException
+    {
+        Random random = new Random(seed * 0x9E3779B97F4A7C15L + taskID);
+        int[] heldResources = new int[maximumResourcesHeld];
+        int[] heldAmounts = new int[maximumResourcesHeld];
+        for (int round = 0; round < roundsPerTask; ++round)
+        {
+            // Picks distinct resources, in ascending order unless this round is allowed to deadlock
+            int numberHeld = 1 + random.nextInt(maximumResourcesHeld);
+            for (int i = 0; i < numberHeld; ++i)
+            {
+                int resourceID;
+                boolean isDuplicate;
+                do
+                {
+                    resourceID = random.nextInt(resourceCapacities.length);
+                    isDuplicate = false;
+                    for (int j = 0; j < i; ++j)
+                        isDuplicate |= heldResources[j] == resourceID;
+                } while (isDuplicate);
+                heldResources[i] = resourceID;
+            }
+            if (random.nextDouble() >= deadlockLikelihood)
+                Arrays.sort(heldResources, 0, numberHeld);
+
+            for (int i = 0; i < numberHeld; ++i)
+            {
+                heldAmounts[i] = Math.min(requestSize.sample(random), resourceCapacities[heldResources[i]]);
+                claims[heldResources[i]] = Math.max(claims[heldResources[i]], heldAmounts[i]);
+            }
+            int cycles = computeTime.sample(random);
+            if (!isWriting)
+                continue;
+
+            for (int i = 0; i < numberHeld; ++i)
+                putActivity(1, taskID + 1, heldResources[i] + 1, heldAmounts[i]);
+            putActivity(2, taskID + 1, cycles, 0);
+            for (int i = 0; i < numberHeld; ++i)
+                putActivity(3, taskID + 1, heldResources[i] + 1, heldAmounts[i]);
+        }
+    } // End of the draw rounds method
+
+    /***** Output Methods *****/
+    private void putActivity(int stepType, int taskNumber, int resourceNumber, int amount) throws IOException
+    {
+        if (buffer.remaining() < MAXIMUM_LINE_LENGTH)
+            drain();
+        buffer.put(ACTIVITY_NAMES[stepType]);
+        putByte(' ');
+        putInt(taskNumber);
+        putByte(' ');
+        putInt(resourceNumber);
+        putByte(' ');
+        putInt(amount);
+        putByte('\n');
+        ++numberOfActivities;
+    } // End of the put activity method
+
+    /**
+     * Writes a non-negative integer as decimal digits
+     */
+    private void putInt(int value) throws IOException
+    {
+        if (buffer.remaining() < 11)
+            drain();
+        int divisor = 1;
+        while (value / divisor >= 10)
+            divisor *= 10;
+        for (; divisor > 0; divisor /= 10)
+            buffer.put((byte) ('0' + (value / divisor) % 10));
+    } // End of the put int method
+
+    private void putByte(char character) throws IOException
+    {
+        if (!buffer.hasRemaining())
+            drain();
+        buffer.put((byte) character);
+    } // End of the put byte method
+
+    private void drain() throws IOException
+    {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    } // End of the drain method
+} // End of the workload generator class